@@ -3,6 +3,7 @@ package com.smartuniversity.config;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
@@ -39,4 +40,209 @@ public class DatabaseInitializer {
             logger.warn("Could not update notifications_type_check constraint: " + e.getMessage());
         }
     }
+
+    @PostConstruct
+    public void addUserTokenVersionColumn() {
+        try {
+            // Added with a default so existing rows get 0 and ddl-auto=validate finds the column
+            jdbcTemplate.execute("ALTER TABLE users ADD COLUMN IF NOT EXISTS token_version INTEGER NOT NULL DEFAULT 0");
+            logger.info("Ensured users.token_version column exists");
+        } catch (Exception e) {
+            // Table does not exist yet on a fresh database; Hibernate will create it with the column
+            logger.warn("Could not add users.token_version column: " + e.getMessage());
+        }
+    }
+
+    @PostConstruct
+    public void addEventRegistrationCounterColumns() {
+        try {
+            // Backfilled from event_registrations by EventRegistrationCountScheduler on startup
+            jdbcTemplate.execute("ALTER TABLE events ADD COLUMN IF NOT EXISTS registered_count INTEGER NOT NULL DEFAULT 0");
+            jdbcTemplate.execute("ALTER TABLE events ADD COLUMN IF NOT EXISTS waitlist_count INTEGER NOT NULL DEFAULT 0");
+            jdbcTemplate.execute("ALTER TABLE events ADD COLUMN IF NOT EXISTS attended_count INTEGER NOT NULL DEFAULT 0");
+            logger.info("Ensured events registration counter columns exist");
+        } catch (Exception e) {
+            logger.warn("Could not add events registration counter columns: " + e.getMessage());
+        }
+    }
+
+    @PostConstruct
+    public void addWaitlistSequenceColumns() {
+        try {
+            jdbcTemplate.execute("ALTER TABLE events ADD COLUMN IF NOT EXISTS waitlist_sequence BIGINT NOT NULL DEFAULT 0");
+            jdbcTemplate.execute("ALTER TABLE event_registrations ADD COLUMN IF NOT EXISTS waitlist_sequence BIGINT");
+
+            // Number pre-existing waitlist entries in join order, then move each event's sequence past them
+            jdbcTemplate.execute("UPDATE event_registrations r SET waitlist_sequence = s.seq FROM (" +
+                "SELECT id, ROW_NUMBER() OVER (PARTITION BY event_id ORDER BY moved_to_waitlist_at, id) AS seq " +
+                "FROM event_registrations WHERE status = 'WAITLISTED') s " +
+                "WHERE r.id = s.id AND r.waitlist_sequence IS NULL");
+            jdbcTemplate.execute("UPDATE events e SET waitlist_sequence = m.max_seq FROM (" +
+                "SELECT event_id, MAX(waitlist_sequence) AS max_seq FROM event_registrations GROUP BY event_id) m " +
+                "WHERE e.id = m.event_id AND e.waitlist_sequence < m.max_seq");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_event_registrations_waitlist " +
+                "ON event_registrations (event_id, status, waitlist_sequence)");
+            logger.info("Ensured waitlist sequence columns exist");
+        } catch (Exception e) {
+            logger.warn("Could not add waitlist sequence columns: " + e.getMessage());
+        }
+    }
+
+    @PostConstruct
+    public void addEventFeedIndex() {
+        try {
+            // Serves the keyset-paginated event feeds ordered by (event_date, id)
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_events_status_event_date ON events (status, event_date, id)");
+            logger.info("Ensured events feed index exists");
+        } catch (Exception e) {
+            logger.warn("Could not create events feed index: " + e.getMessage());
+        }
+    }
+
+    @PostConstruct
+    public void addAttendanceSyncKeyColumn() {
+        try {
+            // Idempotency key for offline check-in sync, unique per event; NULLs do not collide in the unique index
+            jdbcTemplate.execute("ALTER TABLE event_attendance ADD COLUMN IF NOT EXISTS sync_key VARCHAR(100)");
+            jdbcTemplate.execute("DROP INDEX IF EXISTS uk_event_attendance_sync_key");
+            jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS uk_event_attendance_event_sync_key ON event_attendance (event_id, sync_key)");
+            logger.info("Ensured event_attendance.sync_key column exists");
+        } catch (Exception e) {
+            logger.warn("Could not add event_attendance.sync_key column: " + e.getMessage());
+        }
+    }
+
+    @PostConstruct
+    public void addCompetitionEnrollmentCounter() {
+        try {
+            // Duplicated the entity's (competition_id, user_id) unique constraint
+            jdbcTemplate.execute("DROP INDEX IF EXISTS uk_competition_enrollments_competition_user");
+
+            // Backfill only when the column is first added: an unlocked recount on every boot would race
+            // live enrollments on other instances during a rolling deploy and undercount
+            if (columnExists("competitions", "enrolled_count")) {
+                return;
+            }
+            jdbcTemplate.execute("ALTER TABLE competitions ADD COLUMN IF NOT EXISTS enrolled_count INTEGER NOT NULL DEFAULT 0");
+            jdbcTemplate.execute("UPDATE competitions c SET enrolled_count = (SELECT COUNT(*) FROM competition_enrollments ce " +
+                "WHERE ce.competition_id = c.id AND ce.status = 'ENROLLED')");
+            logger.info("Added and backfilled competitions.enrolled_count column");
+        } catch (Exception e) {
+            logger.warn("Could not add competitions.enrolled_count column: " + e.getMessage());
+        }
+    }
+
+    @PostConstruct
+    public void createCompetitionResponseTalliesTable() {
+        try {
+            // Filled by CompetitionResponseTallyBackfill on startup for existing enrollments
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS competition_response_tallies (" +
+                "id BIGSERIAL PRIMARY KEY, " +
+                "competition_id BIGINT NOT NULL, " +
+                "field_label VARCHAR(255) NOT NULL, " +
+                "answer_value VARCHAR(500) NOT NULL, " +
+                "answer_count INTEGER NOT NULL, " +
+                "CONSTRAINT uk_competition_response_tallies UNIQUE (competition_id, field_label, answer_value))");
+            logger.info("Ensured competition_response_tallies table exists");
+        } catch (Exception e) {
+            logger.warn("Could not create competition_response_tallies table: " + e.getMessage());
+        }
+    }
+
+    @PostConstruct
+    public void createAchievementLikesTable() {
+        try {
+            // Likes recorded before this table existed have no owner; they stay in the likes counter
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS achievement_likes (" +
+                "id BIGSERIAL PRIMARY KEY, " +
+                "achievement_id BIGINT NOT NULL, " +
+                "user_id BIGINT NOT NULL, " +
+                "created_at TIMESTAMP NOT NULL, " +
+                "CONSTRAINT uk_achievement_likes UNIQUE (achievement_id, user_id))");
+            logger.info("Ensured achievement_likes table exists");
+        } catch (Exception e) {
+            logger.warn("Could not create achievement_likes table: " + e.getMessage());
+        }
+    }
+
+    @PostConstruct
+    public void addAchievementListingIndexes() {
+        try {
+            // Serve the keyset-paginated achievement listings ordered by (created_at, id)
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_student_achievements_feed " +
+                "ON student_achievements (status, hidden, created_at, id)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_student_achievements_category_feed " +
+                "ON student_achievements (status, category, hidden, created_at, id)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_student_achievements_student " +
+                "ON student_achievements (student_id, created_at, id)");
+            logger.info("Ensured student_achievements listing indexes exist");
+        } catch (Exception e) {
+            logger.warn("Could not create student_achievements listing indexes: " + e.getMessage());
+        }
+    }
+
+    @PostConstruct
+    public void addCommentThreadColumns() {
+        try {
+            // Replies point at their top-level comment; threads are paged by (created_at, id)
+            jdbcTemplate.execute("ALTER TABLE event_comments ADD COLUMN IF NOT EXISTS parent_id BIGINT");
+            jdbcTemplate.execute("ALTER TABLE achievement_comments ADD COLUMN IF NOT EXISTS parent_id BIGINT");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_event_comments_thread " +
+                "ON event_comments (event_id, parent_id, created_at, id)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_event_comments_replies " +
+                "ON event_comments (parent_id, created_at, id)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_achievement_comments_thread " +
+                "ON achievement_comments (achievement_id, parent_id, created_at, id)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_achievement_comments_replies " +
+                "ON achievement_comments (parent_id, created_at, id)");
+            logger.info("Ensured comment parent_id columns and thread indexes exist");
+        } catch (Exception e) {
+            logger.warn("Could not add comment thread columns: " + e.getMessage());
+        }
+    }
+
+    @PostConstruct
+    public void addBookSearchVector() {
+        try {
+            // PostgreSQL full-text search for the book marketplace (see BookSearchService); maintained by
+            // the database on every insert/update. Elsewhere this fails and search falls back to LIKE.
+            jdbcTemplate.execute("ALTER TABLE books ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (" +
+                "setweight(to_tsvector('simple'::regconfig, coalesce(title, '')), 'A') || " +
+                "setweight(to_tsvector('simple'::regconfig, coalesce(author, '')), 'A') || " +
+                "setweight(to_tsvector('simple'::regconfig, regexp_replace(coalesce(isbn, ''), '[^0-9Xx]', '', 'g')), 'A') || " +
+                "setweight(to_tsvector('simple'::regconfig, coalesce(category, '')), 'B') || " +
+                "setweight(to_tsvector('simple'::regconfig, coalesce(description, '')), 'C')) STORED");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_books_search_vector ON books USING GIN (search_vector)");
+            logger.info("Ensured books.search_vector column and GIN index exist");
+        } catch (Exception e) {
+            logger.warn("Could not add books.search_vector column: " + e.getMessage());
+        }
+    }
+
+    @PostConstruct
+    public void addUserRatingsIndex() {
+        try {
+            // Serves per-owner rating averages for book listings (grouped by rated_user_id)
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_user_ratings_rated_user ON user_ratings (rated_user_id, rating)");
+            logger.info("Ensured user_ratings rated_user index exists");
+        } catch (Exception e) {
+            logger.warn("Could not create user_ratings rated_user index: " + e.getMessage());
+        }
+    }
+
+    private boolean columnExists(String table, String column) {
+        Integer columns = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.columns " +
+            "WHERE LOWER(table_name) = ? AND LOWER(column_name) = ?", Integer.class, table, column);
+        return columns != null && columns > 0;
+    }
+
+    /**
+     * Make the JPA EntityManagerFactory (and its schema validation) wait for the statements above.
+     */
+    @Component
+    static class EntityManagerFactoryDependsOnDatabaseInitializer extends EntityManagerFactoryDependsOnPostProcessor {
+        EntityManagerFactoryDependsOnDatabaseInitializer() {
+            super(DatabaseInitializer.class);
+        }
+    }
 }
@@ -55,15 +55,17 @@ public class SecurityConfig {
             .authorizeHttpRequests(auth -> auth
                 // Allow preflight OPTIONS requests for CORS
                 .requestMatchers(org.springframework.http.HttpMethod.OPTIONS, "/**").permitAll()
+                // Async re-dispatch of streamed responses (e.g. CSV exports) was authorized on the original request
+                .dispatcherTypeMatchers(jakarta.servlet.DispatcherType.ASYNC).permitAll()
                 // Public endpoints - Guest access for approved content
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/api/setup/**").permitAll()
                 .requestMatchers("/health", "/api/health/**", "/api/status").permitAll()
                 .requestMatchers("/ws/**").permitAll() // WebSocket endpoints
                 .requestMatchers("/api/upload/image/serve", "/api/upload/pdf/serve", "/api/upload/video/serve").permitAll() // Public image/PDF serving endpoints
-                .requestMatchers("/api/events/approved", "/api/events/upcoming").permitAll()
+                .requestMatchers("/api/events/approved", "/api/events/upcoming", "/api/events/approved/page", "/api/events/upcoming/page").permitAll()
                 .requestMatchers("/api/events/{id}").permitAll()
-                .requestMatchers("/api/achievements/approved").permitAll()
+                .requestMatchers("/api/achievements/approved", "/api/achievements/approved/page").permitAll()
                 .requestMatchers("/api/achievements/{id}").permitAll()
                 .requestMatchers("/api/competitions/approved").permitAll()
                 .requestMatchers("/api/competitions/{id}").permitAll()
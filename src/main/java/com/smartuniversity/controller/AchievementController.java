@@ -4,6 +4,7 @@ import com.smartuniversity.model.StudentAchievement;
 import com.smartuniversity.model.AchievementComment;
 import com.smartuniversity.model.User;
 import com.smartuniversity.service.AchievementService;
+import com.smartuniversity.service.CommentThreadService;
 import com.smartuniversity.util.AuthUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -27,6 +28,9 @@ public class AchievementController {
     @Autowired
     private AuthUtils authUtils;
 
+    @Autowired
+    private CommentThreadService commentThreadService;
+
     // Create new achievement
     @PostMapping
     @Transactional
@@ -70,6 +74,28 @@ public class AchievementController {
         return ResponseEntity.ok(achievements);
     }
 
+    // Cursor-paginated variants of the listings above (see KeysetCursor), returning compact summaries
+
+    @GetMapping("/approved/page")
+    public ResponseEntity<?> getApprovedAchievementsPage(@RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(achievementService.getApprovedAchievementsPage(cursor, size));
+    }
+
+    @GetMapping("/approved/category/{category}/page")
+    public ResponseEntity<?> getApprovedAchievementsByCategoryPage(@PathVariable String category,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(achievementService.getApprovedAchievementsByCategoryPage(category, cursor, size));
+    }
+
+    @GetMapping("/student/{studentId}/page")
+    public ResponseEntity<?> getAchievementsByStudentPage(@PathVariable Long studentId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(achievementService.getAchievementsByStudentPage(studentId, cursor, size));
+    }
+
     // Get achievement by ID
     @GetMapping("/{id}")
     public ResponseEntity<?> getAchievementById(@PathVariable Long id) {
@@ -83,15 +109,19 @@ public class AchievementController {
 
     // Get popular achievements
     @GetMapping("/popular")
-    public ResponseEntity<?> getPopularAchievements() {
-        List<Map<String, Object>> achievements = achievementService.getPopularAchievements();
+    public ResponseEntity<?> getPopularAchievements(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size) {
+        List<Map<String, Object>> achievements = achievementService.getPopularAchievements(page, size);
         return ResponseEntity.ok(achievements);
     }
 
     // Get recent achievements
     @GetMapping("/recent")
-    public ResponseEntity<?> getRecentAchievements() {
-        List<Map<String, Object>> achievements = achievementService.getRecentAchievements();
+    public ResponseEntity<?> getRecentAchievements(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size) {
+        List<Map<String, Object>> achievements = achievementService.getRecentAchievements(page, size);
         return ResponseEntity.ok(achievements);
     }
 
@@ -181,8 +211,8 @@ public class AchievementController {
         if (user == null) {
             return ResponseEntity.status(401).body(Map.of("error", "Authentication required"));
         }
-        achievementService.likeAchievement(achievementId);
-        return ResponseEntity.ok(Map.of("message", "Achievement liked"));
+        boolean liked = achievementService.likeAchievement(achievementId, user.getId());
+        return ResponseEntity.ok(Map.of("message", liked ? "Achievement liked" : "Achievement already liked", "liked", true));
     }
 
     // Unlike achievement
@@ -194,8 +224,8 @@ public class AchievementController {
         if (user == null) {
             return ResponseEntity.status(401).body(Map.of("error", "Authentication required"));
         }
-        achievementService.unlikeAchievement(achievementId);
-        return ResponseEntity.ok(Map.of("message", "Achievement unliked"));
+        boolean unliked = achievementService.unlikeAchievement(achievementId, user.getId());
+        return ResponseEntity.ok(Map.of("message", unliked ? "Achievement unliked" : "Achievement was not liked", "liked", false));
     }
 
     // Share achievement
@@ -229,7 +259,9 @@ public class AchievementController {
             return ResponseEntity.status(401).body(Map.of("error", "Authentication required"));
         }
 
-        AchievementComment comment = achievementService.addComment(achievementId, user.getId(), commentText);
+        // Optional parentId makes this a reply
+        Long parentId = data.get("parentId") != null ? Long.valueOf(data.get("parentId")) : null;
+        AchievementComment comment = achievementService.addComment(achievementId, user.getId(), commentText, parentId);
         return ResponseEntity.ok(Map.of(
             "message", "Comment added successfully",
             "commentId", comment.getId()
@@ -243,6 +275,22 @@ public class AchievementController {
         return ResponseEntity.ok(comments);
     }
 
+    // Cursor-paginated comment thread (see KeysetCursor): top-level comments newest first, each with its replyCount
+    @GetMapping("/{achievementId}/comments/page")
+    public ResponseEntity<?> getCommentsPage(@PathVariable Long achievementId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(commentThreadService.getAchievementComments(achievementId, cursor, size));
+    }
+
+    // Replies to one comment, oldest first, same cursor contract as above
+    @GetMapping("/{achievementId}/comments/{commentId}/replies")
+    public ResponseEntity<?> getCommentReplies(@PathVariable Long achievementId, @PathVariable Long commentId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(commentThreadService.getAchievementReplies(achievementId, commentId, cursor, size));
+    }
+
     // Delete comment
     @DeleteMapping("/comments/{commentId}")
     @Transactional
@@ -2,6 +2,10 @@ package com.smartuniversity.controller;
 
 import com.smartuniversity.model.User;
 import com.smartuniversity.repository.UserRepository;
+import com.smartuniversity.security.JwtVerificationMetrics;
+import com.smartuniversity.security.PrincipalCache;
+import com.smartuniversity.service.CommentAuthorCache;
+import com.smartuniversity.service.EngagementCounterBuffer;
 import com.smartuniversity.util.AuthUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -33,6 +37,18 @@ public class AdminController {
 
     @Autowired
     private AuthUtils authUtils;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private JwtVerificationMetrics jwtVerificationMetrics;
+
+    @Autowired
+    private EngagementCounterBuffer engagementCounterBuffer;
+
+    @Autowired
+    private CommentAuthorCache commentAuthorCache;
     
     /**
      * Get dashboard statistics
@@ -53,6 +69,34 @@ public class AdminController {
         
         return ResponseEntity.ok(stats);
     }
+
+    /**
+     * Get authentication hot-path statistics (JWT verifications per request, principal cache)
+     */
+    @GetMapping("/auth/metrics")
+    public ResponseEntity<?> getAuthMetrics() {
+        Map<String, Object> principalCacheStats = new HashMap<>();
+        principalCacheStats.put("size", principalCache.size());
+        principalCacheStats.put("hits", principalCache.getHitCount());
+        principalCacheStats.put("misses", principalCache.getMissCount());
+
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("jwtVerification", jwtVerificationMetrics.snapshot());
+        metrics.put("principalCache", principalCacheStats);
+        metrics.put("timestamp", LocalDateTime.now());
+
+        return ResponseEntity.ok(metrics);
+    }
+
+    /**
+     * Write-behind engagement counters: deltas still pending per counter and flush totals
+     */
+    @GetMapping("/engagement/metrics")
+    public ResponseEntity<?> getEngagementMetrics() {
+        Map<String, Object> metrics = new HashMap<>(engagementCounterBuffer.snapshot());
+        metrics.put("timestamp", LocalDateTime.now());
+        return ResponseEntity.ok(metrics);
+    }
     
     /**
      * Get all users with pagination and filtering
@@ -223,6 +267,11 @@ public class AdminController {
             }
         }
 
+        // Role or status changes invalidate tokens already issued to this user
+        if (updatedUser.getRole() != existingUser.getRole() || updatedUser.isEnabled() != existingUser.isEnabled()) {
+            existingUser.incrementTokenVersion();
+        }
+
         // Update fields
         existingUser.setFirstName(updatedUser.getFirstName());
         existingUser.setLastName(updatedUser.getLastName());
@@ -236,6 +285,9 @@ public class AdminController {
 
         try {
             userRepository.save(existingUser);
+            principalCache.evict(id);
+            principalCache.evict(existingUser.getUsername());
+            commentAuthorCache.evict(id);
             return ResponseEntity.ok(Map.of("message", "User updated successfully", "user", sanitizeUser(existingUser)));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", "Failed to update user: " + e.getMessage()));
@@ -253,6 +305,8 @@ public class AdminController {
         
         try {
             userRepository.deleteById(id);
+            principalCache.evict(id);
+            commentAuthorCache.evict(id);
             return ResponseEntity.ok(Map.of("message", "User deleted successfully"));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", "Failed to delete user: " + e.getMessage()));
@@ -271,9 +325,11 @@ public class AdminController {
         
         User user = userOpt.get();
         user.setEnabled(!user.isEnabled());
+        user.incrementTokenVersion();
         
         try {
             userRepository.save(user);
+            principalCache.evict(user.getUsername());
             String status = user.isEnabled() ? "enabled" : "disabled";
             return ResponseEntity.ok(Map.of(
                 "message", "User " + status + " successfully",
@@ -304,6 +360,7 @@ public class AdminController {
         
         try {
             userRepository.save(user);
+            principalCache.evict(user.getUsername());
             return ResponseEntity.ok(Map.of("message", "Password reset successfully"));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", "Failed to reset password: " + e.getMessage()));
@@ -375,12 +432,20 @@ public class AdminController {
             
             switch (action.toLowerCase()) {
                 case "enable":
-                    users.forEach(user -> user.setEnabled(true));
+                    users.stream().filter(user -> !user.isEnabled()).forEach(user -> {
+                        user.setEnabled(true);
+                        user.incrementTokenVersion();
+                    });
                     userRepository.saveAll(users);
+                    users.forEach(user -> principalCache.evict(user.getUsername()));
                     break;
                 case "disable":
-                    users.forEach(user -> user.setEnabled(false));
+                    users.stream().filter(User::isEnabled).forEach(user -> {
+                        user.setEnabled(false);
+                        user.incrementTokenVersion();
+                    });
                     userRepository.saveAll(users);
+                    users.forEach(user -> principalCache.evict(user.getUsername()));
                     break;
                 case "delete":
                     // Delete users one by one to handle foreign key constraints gracefully
@@ -390,6 +455,7 @@ public class AdminController {
                         try {
                             userRepository.delete(user);
                             userRepository.flush(); // Force immediate execution to catch constraint errors
+                            principalCache.evict(user.getUsername());
                             successCount++;
                         } catch (Exception ex) {
                             failedUsers.add(user.getEmail() + " (has related data)");
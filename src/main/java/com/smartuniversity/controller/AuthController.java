@@ -10,6 +10,7 @@ import com.smartuniversity.dto.VerifyEmailRequest;
 import com.smartuniversity.model.User;
 import com.smartuniversity.repository.UserRepository;
 import com.smartuniversity.security.JwtUtils;
+import com.smartuniversity.security.PrincipalCache;
 import com.smartuniversity.service.UserPrincipal;
 import com.smartuniversity.service.EmailService;
 import com.smartuniversity.model.User.UserRole;
@@ -66,6 +67,9 @@ public class AuthController {
     @Autowired
     EmailService emailService;
 
+    @Autowired
+    PrincipalCache principalCache;
+
     @PostMapping("/signin")
     public ResponseEntity<?> authenticateUser(@RequestBody LoginRequest loginRequest) {
         System.out.println("=== LOGIN REQUEST START ===");
@@ -131,7 +135,7 @@ public class AuthController {
         }
 
         // Generate real JWT token
-        String jwt = jwtUtils.generateJwtToken(user.getUsername());
+        String jwt = jwtUtils.generateJwtToken(user);
 
         JwtResponse response = new JwtResponse(jwt,
                 user.getId(),
@@ -264,6 +268,7 @@ public class AuthController {
         user.setEmailVerificationOtp(null);
         user.setEmailVerificationOtpExpiry(null);
         userRepository.save(user);
+        principalCache.evict(user.getUsername());
 
         System.out.println("Email verified successfully for: " + user.getEmail());
 
@@ -313,6 +318,7 @@ public class AuthController {
         user.setEmailVerificationOtp(encoder.encode(otp));
         user.setEmailVerificationOtpExpiry(LocalDateTime.now().plusHours(1));
         userRepository.save(user);
+        principalCache.evict(user.getUsername());
 
         try {
             emailService.sendEmailVerificationOTP(user.getEmail(), otp, user.getFirstName());
@@ -402,6 +408,7 @@ public class AuthController {
                 if (user.getImageUrl() == null && oauthRequest.getImageUrl() != null) {
                     user.setImageUrl(oauthRequest.getImageUrl());
                     userRepository.save(user);
+                    principalCache.evict(user.getUsername());
                 }
                 System.out.println("Existing local account found — preserving password login capability");
             }
@@ -443,7 +450,7 @@ public class AuthController {
         }
 
         // Generate JWT token
-        String jwt = jwtUtils.generateJwtToken(user.getUsername());
+        String jwt = jwtUtils.generateJwtToken(user);
 
         JwtResponse response = new JwtResponse(
             jwt,
@@ -490,6 +497,7 @@ public class AuthController {
             user.setResetPasswordOtp(hashedOtp);
             user.setResetPasswordOtpExpiry(LocalDateTime.now().plusHours(1)); // 1 hour expiry
             userRepository.save(user);
+            principalCache.evict(user.getUsername());
 
             // Send OTP via email
             try {
@@ -501,6 +509,7 @@ public class AuthController {
                 user.setResetPasswordOtp(null);
                 user.setResetPasswordOtpExpiry(null);
                 userRepository.save(user);
+                principalCache.evict(user.getUsername());
 
                 return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(java.util.Map.of(
                     "success", false,
@@ -567,6 +576,7 @@ public class AuthController {
             user.setResetPasswordOtp(null); // Clear OTP
             user.setResetPasswordOtpExpiry(null); // Clear expiry
             userRepository.save(user);
+            principalCache.evict(user.getUsername());
 
             System.out.println("Password reset successful for user: " + user.getUsername());
 
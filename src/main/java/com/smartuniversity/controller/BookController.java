@@ -6,6 +6,9 @@ import com.smartuniversity.model.User;
 import com.smartuniversity.repository.BookRepository;
 import com.smartuniversity.repository.BookRequestRepository;
 import com.smartuniversity.repository.UserRatingRepository;
+import com.smartuniversity.service.BookSearchService;
+import com.smartuniversity.service.EngagementCounterBuffer;
+import com.smartuniversity.service.EngagementCounterBuffer.Counter;
 import com.smartuniversity.util.AuthUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -32,6 +35,12 @@ public class BookController {
     @Autowired
     private AuthUtils authUtils;
 
+    @Autowired
+    private EngagementCounterBuffer counterBuffer;
+
+    @Autowired
+    private BookSearchService bookSearchService;
+
     // Health check endpoint - verify deployed version
     @GetMapping("/health")
     public ResponseEntity<String> health() {
@@ -48,19 +57,7 @@ public class BookController {
             List<Book> books = bookRepository.findApprovedOrNullStatusBooks();
             System.out.println("Successfully fetched " + books.size() + " approved books");
             // Enrich each book with owner's rating
-            books.forEach(book -> {
-                try {
-                    if (book.getOwnerId() != null) {
-                        Double rating = userRatingRepository.getAverageRatingForUser(book.getOwnerId());
-                        if (rating != null) {
-                            book.setOwnerRating(Math.round(rating * 10.0) / 10.0);
-                        }
-                    }
-                } catch (Exception e) {
-                    // Skip rating if there's an error, book will just have null rating
-                    System.err.println("Error getting rating for book " + book.getId() + ": " + e.getMessage());
-                }
-            });
+            applyOwnerRatings(books);
             return ResponseEntity.ok(books);
         } catch (Exception e) {
             System.err.println("Error fetching books: " + e.getMessage());
@@ -81,6 +78,7 @@ public class BookController {
         }
         try {
             List<Book> books = bookRepository.findAllByOrderByUploadDateDesc();
+            applyOwnerRatings(books);
             return ResponseEntity.ok(books);
         } catch (Exception e) {
             return ResponseEntity.ok(List.of());
@@ -96,6 +94,7 @@ public class BookController {
         }
         try {
             List<Book> books = bookRepository.findByStatusOrderByUploadDateDesc(Book.BookStatus.PENDING);
+            applyOwnerRatings(books);
             return ResponseEntity.ok(books);
         } catch (Exception e) {
             return ResponseEntity.ok(List.of());
@@ -119,6 +118,7 @@ public class BookController {
             } else {
                 books = bookRepository.findByStatusOrderByUploadDateDesc(bookStatus);
             }
+            applyOwnerRatings(books);
             return ResponseEntity.ok(books);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
@@ -198,6 +198,7 @@ public class BookController {
         try {
             Book.BookType type = Book.BookType.valueOf(bookType.toUpperCase());
             List<Book> books = bookRepository.findByBookType(type);
+            applyOwnerRatings(books);
             return ResponseEntity.ok(books);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
@@ -208,6 +209,7 @@ public class BookController {
     @GetMapping("/owner/{ownerId}")
     public ResponseEntity<List<Book>> getBooksByOwner(@PathVariable Long ownerId) {
         List<Book> books = bookRepository.findByOwnerId(ownerId);
+        applyOwnerRatings(books);
         return ResponseEntity.ok(books);
     }
 
@@ -344,17 +346,82 @@ public class BookController {
             return ResponseEntity.badRequest().body("This endpoint is only for digital books");
         }
 
-        book.setDownloadCount(book.getDownloadCount() + 1);
-        bookRepository.save(book);
+        // Buffered and written in batches; report the stored count plus what is still pending
+        counterBuffer.increment(Counter.BOOK_DOWNLOADS, id, 1);
+        int stored = book.getDownloadCount() != null ? book.getDownloadCount() : 0;
+        book.setDownloadCount(stored + (int) counterBuffer.pending(Counter.BOOK_DOWNLOADS, id));
 
         return ResponseEntity.ok(book);
     }
 
-    // Search books
+    // Search approved books by title, author, ISBN, category and description (best matches first)
     @GetMapping("/search")
     public ResponseEntity<List<Book>> searchBooks(@RequestParam String query) {
-        List<Book> books = bookRepository.findByTitleContainingIgnoreCaseOrAuthorContainingIgnoreCase(query, query);
-        return ResponseEntity.ok(books);
+        BookSearchService.Result result = bookSearchService.search(query, BookSearchService.Filters.NONE, 0, 100);
+        applyOwnerRatings(result.books());
+        return ResponseEntity.ok(result.books());
+    }
+
+    // Ranked search with filters and pagination; an empty query lists books matching the filters
+    @GetMapping("/search/page")
+    public ResponseEntity<?> searchBooksPage(
+            @RequestParam(defaultValue = "") String query,
+            @RequestParam(required = false) String bookType,
+            @RequestParam(required = false) String lendingType,
+            @RequestParam(required = false) Integer minPrice,
+            @RequestParam(required = false) Integer maxPrice,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        BookSearchService.Filters filters;
+        try {
+            filters = new BookSearchService.Filters(
+                bookType != null ? Book.BookType.valueOf(bookType.toUpperCase()) : null,
+                lendingType != null ? Book.LendingType.valueOf(lendingType.toUpperCase()) : null,
+                minPrice, maxPrice);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(java.util.Map.of("error", "Invalid bookType or lendingType"));
+        }
+
+        int pageNumber = Math.max(0, page);
+        int pageSize = Math.max(1, Math.min(size, 100));
+        BookSearchService.Result result = bookSearchService.search(query, filters, pageNumber, pageSize);
+        applyOwnerRatings(result.books());
+
+        java.util.Map<String, Object> response = new java.util.HashMap<>();
+        response.put("books", result.books());
+        response.put("total", result.total());
+        response.put("page", pageNumber);
+        response.put("size", pageSize);
+        response.put("hasNext", (long) (pageNumber + 1) * pageSize < result.total());
+        return ResponseEntity.ok(response);
+    }
+
+    // Fill in each book's owner rating (average, one decimal) with one grouped query for all owners
+    private void applyOwnerRatings(List<Book> books) {
+        java.util.Set<Long> ownerIds = new java.util.HashSet<>();
+        for (Book book : books) {
+            if (book.getOwnerId() != null) {
+                ownerIds.add(book.getOwnerId());
+            }
+        }
+        if (ownerIds.isEmpty()) {
+            return;
+        }
+        try {
+            java.util.Map<Long, Double> ratings = new java.util.HashMap<>();
+            for (Object[] row : userRatingRepository.getAverageRatingsForUsers(ownerIds)) {
+                ratings.put((Long) row[0], ((Number) row[1]).doubleValue());
+            }
+            for (Book book : books) {
+                Double rating = ratings.get(book.getOwnerId());
+                if (rating != null) {
+                    book.setOwnerRating(Math.round(rating * 10.0) / 10.0);
+                }
+            }
+        } catch (Exception e) {
+            // Skip ratings if there's an error, books will just keep their stored rating
+            System.err.println("Error getting owner ratings: " + e.getMessage());
+        }
     }
 
     // --- Book Request Endpoints ---
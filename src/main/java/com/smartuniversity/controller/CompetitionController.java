@@ -10,16 +10,28 @@ import com.smartuniversity.repository.CompetitionEnrollmentRepository;
 import com.smartuniversity.repository.CompetitionRepository;
 import com.smartuniversity.repository.FormFieldRepository;
 import com.smartuniversity.repository.UserRepository;
+import com.smartuniversity.service.CompetitionFormCache;
+import com.smartuniversity.service.CompetitionResponseTallyService;
+import com.smartuniversity.service.CompiledCompetitionForm;
 import com.smartuniversity.service.S3Service;
 import com.smartuniversity.util.AuthUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import org.springframework.web.bind.annotation.*;
-
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -49,6 +61,12 @@ public class CompetitionController {
     @Autowired
     private S3Service s3Service;
 
+    @Autowired
+    private CompetitionFormCache formCache;
+
+    @Autowired
+    private CompetitionResponseTallyService tallyService;
+
     // Create a new competition
     @PostMapping
     @Transactional
@@ -209,6 +227,7 @@ public class CompetitionController {
         }
 
         Competition savedCompetition = competitionRepository.save(competition);
+        formCache.evict(id);
 
         String message = wasRejected ?
             (savedCompetition.getStatus() == ApprovalStatus.APPROVED ?
@@ -247,8 +266,7 @@ public class CompetitionController {
 
         // Add form fields if internal enrollment enabled
         if (competition.isInternalEnrollmentEnabled()) {
-            List<FormField> formFields = formFieldRepository.findByCompetitionIdOrderByOrderAsc(id);
-            response.put("formFields", formFields);
+            response.put("formFields", formCache.getForm(id).getFields());
         }
 
         return ResponseEntity.ok(response);
@@ -282,14 +300,15 @@ public class CompetitionController {
     public ResponseEntity<?> getMyCompetitions(@PathVariable Long organizerId) {
         List<Competition> competitions = competitionRepository.findByOrganizerIdOrderByCreatedAtDesc(organizerId);
 
+        Map<Long, Long> enrollmentCounts = countEnrollments(competitions);
+
         List<Map<String, Object>> response = new ArrayList<>();
         for (Competition comp : competitions) {
             Map<String, Object> compData = buildCompetitionResponse(comp);
 
             // Add enrollment count if internal enrollment is enabled
             if (comp.isInternalEnrollmentEnabled()) {
-                Long enrollmentCount = enrollmentRepository.countByCompetitionIdAndStatus(comp.getId(), EnrollmentStatus.ENROLLED);
-                compData.put("enrollmentCount", enrollmentCount);
+                compData.put("enrollmentCount", enrollmentCounts.getOrDefault(comp.getId(), 0L));
             }
 
             response.add(compData);
@@ -327,27 +346,45 @@ public class CompetitionController {
             return ResponseEntity.badRequest().body(Map.of("error", "Registration deadline has passed"));
         }
 
+        // Validate and normalize answers against the competition's form
+        String formResponses = formCache.getForm(competitionId).normalize((String) enrollmentData.get("formResponses"));
+
         // Check if already enrolled
-        if (enrollmentRepository.existsByCompetitionIdAndUserIdAndStatus(competitionId, userId, EnrollmentStatus.ENROLLED)) {
+        CompetitionEnrollment existing = enrollmentRepository.findByCompetitionIdAndUserId(competitionId, userId).orElse(null);
+        if (existing != null && existing.getStatus() == EnrollmentStatus.ENROLLED) {
             return ResponseEntity.badRequest().body(Map.of("error", "Already enrolled in this competition"));
         }
 
-        // Check max participants
-        if (competition.getMaxParticipants() != null) {
-            Long currentEnrollments = enrollmentRepository.countByCompetitionIdAndStatus(competitionId, EnrollmentStatus.ENROLLED);
-            if (currentEnrollments >= competition.getMaxParticipants()) {
-                return ResponseEntity.badRequest().body(Map.of("error", "Competition is full"));
-            }
+        // Claim a slot atomically; fails once maxParticipants is reached
+        if (competitionRepository.claimEnrollmentSlot(competitionId) == 0) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Competition is full"));
         }
 
-        // Create enrollment
-        CompetitionEnrollment enrollment = new CompetitionEnrollment();
-        enrollment.setCompetitionId(competitionId);
-        enrollment.setUserId(userId);
-        enrollment.setFormResponses((String) enrollmentData.get("formResponses")); // JSON string
-        enrollment.setStatus(EnrollmentStatus.ENROLLED);
-
-        enrollmentRepository.save(enrollment);
+        if (existing != null) {
+            // Re-enrolling after a withdrawal reuses the row (one row per competition and user)
+            int reenrolled = enrollmentRepository.reenroll(existing.getId(), formResponses,
+                EnrollmentStatus.ENROLLED, EnrollmentStatus.WITHDRAWN);
+            if (reenrolled == 0) {
+                // A concurrent request from the same user re-enrolled first; undo the slot claim
+                TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+                return ResponseEntity.badRequest().body(Map.of("error", "Already enrolled in this competition"));
+            }
+        } else {
+            // Create enrollment
+            CompetitionEnrollment enrollment = new CompetitionEnrollment();
+            enrollment.setCompetitionId(competitionId);
+            enrollment.setUserId(userId);
+            enrollment.setFormResponses(formResponses);
+            enrollment.setStatus(EnrollmentStatus.ENROLLED);
+            try {
+                enrollmentRepository.saveAndFlush(enrollment);
+            } catch (DataIntegrityViolationException e) {
+                // A concurrent request from the same user won the insert; undo the slot claim
+                TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+                return ResponseEntity.badRequest().body(Map.of("error", "Already enrolled in this competition"));
+            }
+        }
+        tallyService.record(competitionId, formResponses, 1);
 
         return ResponseEntity.ok(Map.of("message", "Successfully enrolled in competition"));
     }
@@ -368,9 +405,13 @@ public class CompetitionController {
             return ResponseEntity.badRequest().body(Map.of("error", "Already withdrawn"));
         }
 
-        enrollment.setStatus(EnrollmentStatus.WITHDRAWN);
-        enrollment.setWithdrawnAt(LocalDateTime.now());
-        enrollmentRepository.save(enrollment);
+        int withdrawn = enrollmentRepository.withdraw(enrollment.getId(), LocalDateTime.now(),
+            EnrollmentStatus.ENROLLED, EnrollmentStatus.WITHDRAWN);
+        if (withdrawn == 0) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Already withdrawn"));
+        }
+        competitionRepository.releaseEnrollmentSlot(competitionId);
+        tallyService.record(competitionId, enrollment.getFormResponses(), -1);
 
         return ResponseEntity.ok(Map.of("message", "Successfully withdrawn from competition"));
     }
@@ -426,60 +467,118 @@ public class CompetitionController {
         return ResponseEntity.ok(response);
     }
 
-    // Export enrollments as CSV
-    @GetMapping("/{competitionId}/enrollments/export")
-    public ResponseEntity<?> exportEnrollments(
+    // Answer distributions per form field (for organizer)
+    @GetMapping("/{competitionId}/enrollments/analytics")
+    public ResponseEntity<?> getEnrollmentAnalytics(
             @PathVariable Long competitionId,
-            @RequestParam(required = false) Long organizerId,
             @RequestHeader(value = "Authorization", required = false) String authHeader) {
+        User currentUser = authUtils.getUserFromAuthHeader(authHeader);
+        if (currentUser == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "Authentication required"));
+        }
+
         Competition competition = competitionRepository.findById(competitionId)
             .orElseThrow(() -> new NotFoundException("Competition not found"));
 
-        // Allow organizer or admin
+        // Allow organizer or admin, identified from the token
         boolean isAdmin = authUtils.isAdmin(authHeader);
-        boolean isOrganizer = organizerId != null && competition.getOrganizerId().equals(organizerId);
+        boolean isOrganizer = currentUser.getId().equals(competition.getOrganizerId());
         if (!isAdmin && !isOrganizer) {
             return ResponseEntity.status(403).body(Map.of("error", "Unauthorized"));
         }
 
-        List<CompetitionEnrollment> enrollments = enrollmentRepository.findByCompetitionIdAndStatusOrderByEnrolledAtAsc(
-            competitionId,
-            EnrollmentStatus.ENROLLED
-        );
-
-        StringBuilder csv = new StringBuilder();
-        csv.append("User ID,Name,Email,Enrolled At,Form Responses\n");
+        Map<String, Object> response = new HashMap<>();
+        response.put("competitionId", competitionId);
+        response.put("totalEnrollments", competition.getEnrolledCount());
+        response.put("fields", tallyService.getDistributions(competitionId));
+        return ResponseEntity.ok(response);
+    }
 
-        // Batch fetch users to avoid N+1 queries
-        Set<Long> userIds = new HashSet<>();
-        for (CompetitionEnrollment enrollment : enrollments) {
-            userIds.add(enrollment.getUserId());
+    // Export enrollments as CSV
+    @GetMapping("/{competitionId}/enrollments/export")
+    public ResponseEntity<StreamingResponseBody> exportEnrollments(
+            @PathVariable Long competitionId,
+            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+        User currentUser = authUtils.getUserFromAuthHeader(authHeader);
+        if (currentUser == null) {
+            throw new UnauthorizedException("Authentication required");
         }
-        Map<Long, User> userMap = new HashMap<>();
-        for (User u : userRepository.findAllById(userIds)) {
-            userMap.put(u.getId(), u);
+
+        Competition competition = competitionRepository.findById(competitionId)
+            .orElseThrow(() -> new NotFoundException("Competition not found"));
+
+        // Allow organizer or admin, identified from the token
+        boolean isAdmin = authUtils.isAdmin(authHeader);
+        boolean isOrganizer = currentUser.getId().equals(competition.getOrganizerId());
+        if (!isAdmin && !isOrganizer) {
+            throw new ForbiddenException("Unauthorized");
         }
 
-        for (CompetitionEnrollment enrollment : enrollments) {
-            User user = userMap.get(enrollment.getUserId());
-            csv.append(enrollment.getUserId()).append(",");
+        // One column per form field; competitions without a form keep the raw JSON column
+        CompiledCompetitionForm form = formCache.getForm(competitionId);
+        List<String> fieldLabels = form.getLabels();
 
-            if (user != null) {
-                csv.append("\"").append(user.getFirstName()).append(" ").append(user.getLastName()).append("\",");
-                csv.append("\"").append(user.getEmail()).append("\",");
+        // Rows are written as they are read from the database cursor, so memory stays flat
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+
+            List<String> header = new ArrayList<>(List.of("User ID", "Name", "Email", "Enrolled At"));
+            if (fieldLabels.isEmpty()) {
+                header.add("Form Responses");
             } else {
-                csv.append("N/A,N/A,");
+                header.addAll(fieldLabels);
             }
-
-            csv.append("\"").append(enrollment.getEnrolledAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)).append("\",");
-            csv.append("\"").append(enrollment.getFormResponses() != null ? enrollment.getFormResponses().replace("\"", "\"\"") : "").append("\"\n");
-        }
+            writeCsvRow(writer, header);
+
+            try {
+                enrollmentRepository.streamEnrolledForExport(competitionId, row -> {
+                    List<String> values = new ArrayList<>(header.size());
+                    values.add(String.valueOf(row.userId()));
+                    values.add(row.email() != null ? row.firstName() + " " + row.lastName() : "N/A");
+                    values.add(row.email() != null ? row.email() : "N/A");
+                    values.add(row.enrolledAt() != null ? row.enrolledAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : "");
+                    if (fieldLabels.isEmpty()) {
+                        values.add(row.formResponses());
+                    } else {
+                        values.addAll(form.toColumns(row.formResponses()));
+                    }
+                    try {
+                        writeCsvRow(writer, values);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause(); // Client went away mid-download
+            }
+            writer.flush();
+        };
 
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.parseMediaType("text/csv"));
+        headers.setContentType(MediaType.parseMediaType("text/csv; charset=UTF-8"));
         headers.setContentDispositionFormData("attachment", "enrollments_" + competitionId + ".csv");
 
-        return new ResponseEntity<>(csv.toString(), headers, HttpStatus.OK);
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    /**
+     * Write one RFC 4180 row: fields containing commas, quotes or line breaks are quoted
+     */
+    private static void writeCsvRow(Writer writer, List<String> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String value = values.get(i) != null ? values.get(i) : "";
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+        writer.write("\r\n");
     }
 
     // Check if current user is enrolled
@@ -657,6 +756,8 @@ public class CompetitionController {
             organizerMap.put(u.getId(), u);
         }
 
+        Map<Long, Long> enrollmentCounts = countEnrollments(competitions);
+
         List<Map<String, Object>> response = new ArrayList<>();
         for (Competition comp : competitions) {
             Map<String, Object> compData = buildCompetitionResponse(comp);
@@ -669,11 +770,7 @@ public class CompetitionController {
             }
 
             // Add enrollment count
-            long enrollmentCount = enrollmentRepository.countByCompetitionIdAndStatus(
-                comp.getId(),
-                EnrollmentStatus.ENROLLED
-            );
-            compData.put("enrollmentCount", enrollmentCount);
+            compData.put("enrollmentCount", enrollmentCounts.getOrDefault(comp.getId(), 0L));
 
             response.add(compData);
         }
@@ -699,6 +796,8 @@ public class CompetitionController {
 
         // Delete related form fields
         formFieldRepository.deleteByCompetitionId(competitionId);
+        formCache.evict(competitionId);
+        tallyService.deleteTallies(competitionId);
 
         // Delete the competition
         competitionRepository.delete(competition);
@@ -720,6 +819,22 @@ public class CompetitionController {
         }
     }
 
+    // Active enrollment counts for a list of competitions in one grouped query (competitionId -> count)
+    private Map<Long, Long> countEnrollments(List<Competition> competitions) {
+        Map<Long, Long> counts = new HashMap<>();
+        if (competitions.isEmpty()) {
+            return counts;
+        }
+        List<Long> competitionIds = new ArrayList<>();
+        for (Competition comp : competitions) {
+            competitionIds.add(comp.getId());
+        }
+        for (Object[] row : enrollmentRepository.countByCompetitionIdsAndStatus(competitionIds, EnrollmentStatus.ENROLLED)) {
+            counts.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
     // Helper method to build competition response
     private Map<String, Object> buildCompetitionResponse(Competition competition) {
         Map<String, Object> compData = new HashMap<>();
@@ -8,7 +8,7 @@ import com.smartuniversity.model.User;
 import com.smartuniversity.repository.EmergencyNotificationAcknowledgmentRepository;
 import com.smartuniversity.repository.NotificationRepository;
 import com.smartuniversity.repository.UserRepository;
-import com.smartuniversity.security.JwtUtils;
+import com.smartuniversity.util.AuthUtils;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -37,7 +37,7 @@ public class EmergencyNotificationController {
     private SimpMessagingTemplate messagingTemplate;
 
     @Autowired
-    private JwtUtils jwtUtils;
+    private AuthUtils authUtils;
 
     @PostMapping("/create")
     public ResponseEntity<?> createEmergency(@Valid @RequestBody NotificationRequest request,
@@ -384,29 +384,10 @@ public class EmergencyNotificationController {
     }
 
     private Optional<User> getAdminFromToken(String token) {
-        try {
-            if (token != null && token.startsWith("Bearer ")) {
-                String jwt = token.substring(7);
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-                return userRepository.findByUsername(username)
-                        .filter(user -> user.getRole().equals(User.UserRole.ADMIN));
-            }
-            return Optional.empty();
-        } catch (Exception e) {
-            return Optional.empty();
-        }
+        return Optional.ofNullable(authUtils.getAdminFromAuthHeader(token));
     }
 
     private Optional<User> getUserFromToken(String token) {
-        try {
-            if (token != null && token.startsWith("Bearer ")) {
-                String jwt = token.substring(7);
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-                return userRepository.findByUsername(username);
-            }
-            return Optional.empty();
-        } catch (Exception e) {
-            return Optional.empty();
-        }
+        return Optional.ofNullable(authUtils.getUserFromAuthHeader(token));
     }
 }
@@ -1,23 +1,40 @@
 package com.smartuniversity.controller;
 
+import com.smartuniversity.dto.AttendanceSyncRequest;
+import com.smartuniversity.dto.AttendanceSyncResult;
+import com.smartuniversity.dto.EventResponse;
+import com.smartuniversity.dto.EventSummary;
 import com.smartuniversity.model.Event;
 import com.smartuniversity.model.Event.ApprovalStatus;
 import com.smartuniversity.model.EventRegistration;
 import com.smartuniversity.model.EventRegistration.RegistrationStatus;
 import com.smartuniversity.model.EventComment;
 import com.smartuniversity.model.User;
+import com.smartuniversity.repository.EventAttendanceBatchRepository.SyncedCheckIn;
 import com.smartuniversity.repository.EventRepository;
 import com.smartuniversity.repository.EventRegistrationRepository;
 import com.smartuniversity.repository.EventCommentRepository;
 import com.smartuniversity.repository.UserRepository;
+import com.smartuniversity.service.CommentAuthorCache;
+import com.smartuniversity.service.CommentAuthorCache.AuthorProfile;
+import com.smartuniversity.service.CommentThreadService;
 import com.smartuniversity.util.AuthUtils;
+import com.smartuniversity.util.KeysetCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
 import java.util.*;
 import com.smartuniversity.exception.NotFoundException;
 import com.smartuniversity.exception.UnauthorizedException;
@@ -27,6 +44,8 @@ import com.smartuniversity.exception.ForbiddenException;
 @RequestMapping("/api/events")
 public class EventController {
 
+    private static final int MAX_BULK_CHECK_INS = 2000;
+
     @Autowired
     private EventRepository eventRepository;
 
@@ -42,9 +61,18 @@ public class EventController {
     @Autowired
     private AuthUtils authUtils;
 
+    @Autowired
+    private CommentThreadService commentThreadService;
+
+    @Autowired
+    private CommentAuthorCache commentAuthorCache;
+
     @Autowired
     private com.smartuniversity.repository.EventAttendanceRepository attendanceRepository;
 
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
     // Create a new event
     @PostMapping
     @Transactional
@@ -141,22 +169,7 @@ public class EventController {
     @GetMapping("/approved")
     public ResponseEntity<?> getApprovedEvents() {
         try {
-            List<Event> events = eventRepository.findByStatusAndHiddenOrderByEventDateAsc(ApprovalStatus.APPROVED, false);
-
-            List<Map<String, Object>> response = new ArrayList<>();
-            for (Event event : events) {
-                Map<String, Object> eventData = buildEventResponse(event);
-
-                // Add registration count
-                long registeredCount = registrationRepository.countByEventIdAndStatus(event.getId(), RegistrationStatus.REGISTERED);
-                long waitlistCount = registrationRepository.countByEventIdAndStatus(event.getId(), RegistrationStatus.WAITLISTED);
-                eventData.put("registeredCount", registeredCount);
-                eventData.put("waitlistCount", waitlistCount);
-                eventData.put("spotsAvailable", event.getMaxAttendees() != null ? event.getMaxAttendees() - registeredCount : null);
-
-                response.add(eventData);
-            }
-
+            List<EventResponse> response = eventRepository.findVisibleResponses(ApprovalStatus.APPROVED);
             return ResponseEntity.ok(response);
         } catch (RuntimeException e) {
             String msg = e.getMessage();
@@ -176,24 +189,7 @@ public class EventController {
     @GetMapping("/upcoming")
     public ResponseEntity<?> getUpcomingEvents() {
         try {
-            List<Event> events = eventRepository.findByStatusAndEventDateAfterOrderByEventDateAsc(
-                ApprovalStatus.APPROVED,
-                LocalDateTime.now()
-            );
-
-            List<Map<String, Object>> response = new ArrayList<>();
-            for (Event event : events) {
-                if (!event.isHidden()) {
-                    Map<String, Object> eventData = buildEventResponse(event);
-
-                    long registeredCount = registrationRepository.countByEventIdAndStatus(event.getId(), RegistrationStatus.REGISTERED);
-                    eventData.put("registeredCount", registeredCount);
-                    eventData.put("spotsAvailable", event.getMaxAttendees() != null ? event.getMaxAttendees() - registeredCount : null);
-
-                    response.add(eventData);
-                }
-            }
-
+            List<EventResponse> response = eventRepository.findVisibleResponsesAfter(ApprovalStatus.APPROVED, LocalDateTime.now());
             return ResponseEntity.ok(response);
         } catch (RuntimeException e) {
             String msg = e.getMessage();
@@ -213,18 +209,7 @@ public class EventController {
     @GetMapping("/past")
     public ResponseEntity<?> getPastEvents() {
         try {
-            List<Event> events = eventRepository.findByStatusAndEventDateBeforeOrderByEventDateDesc(
-                ApprovalStatus.APPROVED,
-                LocalDateTime.now()
-            );
-
-            List<Map<String, Object>> response = new ArrayList<>();
-            for (Event event : events) {
-                if (!event.isHidden()) {
-                    response.add(buildEventResponse(event));
-                }
-            }
-
+            List<EventResponse> response = eventRepository.findVisibleResponsesBefore(ApprovalStatus.APPROVED, LocalDateTime.now());
             return ResponseEntity.ok(response);
         } catch (RuntimeException e) {
             String msg = e.getMessage();
@@ -244,15 +229,7 @@ public class EventController {
     @GetMapping("/category/{category}")
     public ResponseEntity<?> getEventsByCategory(@PathVariable String category) {
         try {
-            List<Event> events = eventRepository.findByStatusAndCategoryOrderByEventDateAsc(ApprovalStatus.APPROVED, category);
-
-            List<Map<String, Object>> response = new ArrayList<>();
-            for (Event event : events) {
-                if (!event.isHidden()) {
-                    response.add(buildEventResponse(event));
-                }
-            }
-
+            List<EventResponse> response = eventRepository.findVisibleResponsesByCategory(ApprovalStatus.APPROVED, category);
             return ResponseEntity.ok(response);
         } catch (RuntimeException e) {
             String msg = e.getMessage();
@@ -268,6 +245,51 @@ public class EventController {
         }
     }
 
+    // Cursor-paginated feeds (see KeysetCursor): same filters as the list endpoints above, one page at a time
+
+    @GetMapping("/approved/page")
+    public ResponseEntity<?> getApprovedEventsPage(@RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        KeysetCursor after = cursor != null ? KeysetCursor.decode(cursor) : KeysetCursor.EARLIEST;
+        int pageSize = clampPageSize(size);
+        List<EventSummary> events = eventRepository.findVisibleAfter(
+            ApprovalStatus.APPROVED, after.timestamp(), after.id(), PageRequest.of(0, pageSize + 1));
+        return ResponseEntity.ok(buildEventPage(events, pageSize));
+    }
+
+    @GetMapping("/upcoming/page")
+    public ResponseEntity<?> getUpcomingEventsPage(@RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        // First page starts strictly after "now", matching /upcoming
+        KeysetCursor after = cursor != null ? KeysetCursor.decode(cursor) : new KeysetCursor(LocalDateTime.now(), Long.MAX_VALUE);
+        int pageSize = clampPageSize(size);
+        List<EventSummary> events = eventRepository.findVisibleAfter(
+            ApprovalStatus.APPROVED, after.timestamp(), after.id(), PageRequest.of(0, pageSize + 1));
+        return ResponseEntity.ok(buildEventPage(events, pageSize));
+    }
+
+    @GetMapping("/past/page")
+    public ResponseEntity<?> getPastEventsPage(@RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        // Newest first; first page starts strictly before "now", matching /past
+        KeysetCursor before = cursor != null ? KeysetCursor.decode(cursor) : new KeysetCursor(LocalDateTime.now(), 0L);
+        int pageSize = clampPageSize(size);
+        List<EventSummary> events = eventRepository.findVisibleBefore(
+            ApprovalStatus.APPROVED, before.timestamp(), before.id(), PageRequest.of(0, pageSize + 1));
+        return ResponseEntity.ok(buildEventPage(events, pageSize));
+    }
+
+    @GetMapping("/category/{category}/page")
+    public ResponseEntity<?> getEventsByCategoryPage(@PathVariable String category,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        KeysetCursor after = cursor != null ? KeysetCursor.decode(cursor) : KeysetCursor.EARLIEST;
+        int pageSize = clampPageSize(size);
+        List<EventSummary> events = eventRepository.findVisibleByCategoryAfter(
+            ApprovalStatus.APPROVED, category, after.timestamp(), after.id(), PageRequest.of(0, pageSize + 1));
+        return ResponseEntity.ok(buildEventPage(events, pageSize));
+    }
+
     // Get event by ID
     @GetMapping("/{id}")
     public ResponseEntity<?> getEventById(@PathVariable Long id) {
@@ -275,16 +297,7 @@ public class EventController {
             Event event = eventRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Event not found"));
 
-            Map<String, Object> response = buildEventResponse(event);
-
-            // Add registration stats
-            long registeredCount = registrationRepository.countByEventIdAndStatus(event.getId(), RegistrationStatus.REGISTERED);
-            long waitlistCount = registrationRepository.countByEventIdAndStatus(event.getId(), RegistrationStatus.WAITLISTED);
-            response.put("registeredCount", registeredCount);
-            response.put("waitlistCount", waitlistCount);
-            response.put("spotsAvailable", event.getMaxAttendees() != null ? event.getMaxAttendees() - registeredCount : null);
-
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(EventResponse.from(event));
         } catch (RuntimeException e) {
             String msg = e.getMessage();
             if (msg != null && msg.toLowerCase().contains("not found")) {
@@ -310,7 +323,7 @@ public class EventController {
                 Map<String, Object> eventData = buildEventResponse(event);
 
                 // Add registration count
-                long registeredCount = registrationRepository.countByEventIdAndStatus(event.getId(), RegistrationStatus.REGISTERED);
+                long registeredCount = event.getRegisteredCount();
                 eventData.put("registeredCount", registeredCount);
 
                 response.add(eventData);
@@ -539,26 +552,36 @@ public class EventController {
                 return ResponseEntity.badRequest().body(Map.of("error", "Already registered for this event"));
             }
 
-            // Check capacity and determine if registration or waitlist
+            // Claim a seat with a conditional update; fall back to the waitlist when full
             RegistrationStatus status = RegistrationStatus.REGISTERED;
-            if (event.getMaxAttendees() != null) {
-                long currentRegistrations = registrationRepository.countByEventIdAndStatus(eventId, RegistrationStatus.REGISTERED);
-                if (currentRegistrations >= event.getMaxAttendees()) {
-                    status = RegistrationStatus.WAITLISTED;
-                }
-            }
-
-            // Create registration
-            EventRegistration registration = new EventRegistration(eventId, userId, status);
+            Long waitlistSequence = null;
             Integer waitlistPosition = null;
-            if (status == RegistrationStatus.WAITLISTED) {
-                registration.setMovedToWaitlistAt(LocalDateTime.now());
-                // Calculate waitlist position (1-based)
-                long currentWaitlistCount = registrationRepository.countByEventIdAndStatus(eventId, RegistrationStatus.WAITLISTED);
-                waitlistPosition = (int) currentWaitlistCount + 1;
-                registration.setWaitlistPosition(waitlistPosition);
+            if (eventRepository.claimSeat(eventId) == 0) {
+                status = RegistrationStatus.WAITLISTED;
+                eventRepository.enqueueWaitlist(eventId);
+                Object[] waitlistCounters = eventRepository.findWaitlistCounters(eventId).get(0);
+                waitlistPosition = ((Number) waitlistCounters[0]).intValue();
+                waitlistSequence = ((Number) waitlistCounters[1]).longValue();
+            }
+
+            // Reuse a cancelled registration row (event_id, user_id is unique)
+            EventRegistration registration = existingRegistration.orElse(null);
+            if (registration == null) {
+                registration = new EventRegistration(eventId, userId, status);
+            }
+            registration.setStatus(status);
+            registration.setCancelledAt(null);
+            registration.setMovedFromWaitlistAt(null);
+            registration.setMovedToWaitlistAt(status == RegistrationStatus.WAITLISTED ? LocalDateTime.now() : null);
+            registration.setWaitlistSequence(waitlistSequence);
+            registration.setWaitlistPosition(waitlistPosition);
+            try {
+                registrationRepository.saveAndFlush(registration);
+            } catch (DataIntegrityViolationException e) {
+                // A concurrent request from the same user won the insert; undo the seat/waitlist claim
+                TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+                return ResponseEntity.badRequest().body(Map.of("error", "Already registered for this event"));
             }
-            registrationRepository.save(registration);
 
             String message = status == RegistrationStatus.REGISTERED ?
                 "Successfully registered for event" :
@@ -605,43 +628,16 @@ public class EventController {
             RegistrationStatus previousStatus = registration.getStatus();
             registration.setStatus(RegistrationStatus.CANCELLED);
             registration.setCancelledAt(LocalDateTime.now());
+            registration.setWaitlistPosition(null);
             registrationRepository.save(registration);
 
-            // If user was registered (not waitlisted), move first waitlisted user to registered
-            if (previousStatus == RegistrationStatus.REGISTERED) {
-                List<EventRegistration> waitlist = registrationRepository.findByEventIdAndStatusOrderByMovedToWaitlistAtAsc(
-                    eventId, RegistrationStatus.WAITLISTED
-                );
-                if (!waitlist.isEmpty()) {
-                    EventRegistration firstWaitlisted = waitlist.get(0);
-                    firstWaitlisted.setStatus(RegistrationStatus.REGISTERED);
-                    firstWaitlisted.setMovedFromWaitlistAt(LocalDateTime.now());
-                    firstWaitlisted.setWaitlistPosition(null); // Clear waitlist position
-                    registrationRepository.save(firstWaitlisted);
-
-                    // Update positions for remaining waitlisted users
-                    for (int i = 1; i < waitlist.size(); i++) {
-                        EventRegistration waitlistedUser = waitlist.get(i);
-                        waitlistedUser.setWaitlistPosition(i); // Positions are 1-based
-                        registrationRepository.save(waitlistedUser);
-                    }
-                }
-            } else if (previousStatus == RegistrationStatus.WAITLISTED) {
-                // User was on waitlist, update positions for remaining waitlisted users
-                Integer cancelledPosition = registration.getWaitlistPosition();
-                registration.setWaitlistPosition(null); // Clear cancelled user's position
-                registrationRepository.save(registration);
-
-                if (cancelledPosition != null) {
-                    List<EventRegistration> waitlist = registrationRepository.findByEventIdAndStatusOrderByMovedToWaitlistAtAsc(
-                        eventId, RegistrationStatus.WAITLISTED
-                    );
-                    int position = 1;
-                    for (EventRegistration waitlistedUser : waitlist) {
-                        waitlistedUser.setWaitlistPosition(position++);
-                        registrationRepository.save(waitlistedUser);
-                    }
-                }
+            // Waitlist positions are derived from waitlistSequence, so leaving the waitlist
+            // needs no rewrite of the remaining rows
+            if (previousStatus == RegistrationStatus.WAITLISTED) {
+                eventRepository.adjustWaitlistCount(eventId, -1);
+            } else if (previousStatus == RegistrationStatus.REGISTERED) {
+                eventRepository.adjustRegisteredCount(eventId, -1);
+                promoteFirstWaitlisted(eventId);
             }
 
             return ResponseEntity.ok(Map.of("message", "Registration cancelled successfully"));
@@ -659,6 +655,27 @@ public class EventController {
         }
     }
 
+    /**
+     * Move the head of the waitlist into a freed seat with targeted updates.
+     * The seat claim locks the event row, so concurrent cancellations promote one user each.
+     */
+    private void promoteFirstWaitlisted(Long eventId) {
+        while (true) {
+            Optional<EventRegistration> head = registrationRepository.findFirstByEventIdAndStatusOrderByWaitlistSequenceAsc(
+                eventId, RegistrationStatus.WAITLISTED);
+            if (head.isEmpty() || eventRepository.claimSeat(eventId) == 0) {
+                return;
+            }
+            if (registrationRepository.promoteFromWaitlist(head.get().getId(), LocalDateTime.now(),
+                    RegistrationStatus.REGISTERED, RegistrationStatus.WAITLISTED) == 1) {
+                eventRepository.adjustWaitlistCount(eventId, -1);
+                return;
+            }
+            // Head left the waitlist meanwhile: give the seat back and retry with the next entry
+            eventRepository.adjustRegisteredCount(eventId, -1);
+        }
+    }
+
     // Get registrations for an event (for creator)
     @GetMapping("/{eventId}/registrations")
     public ResponseEntity<?> getEventRegistrations(@PathVariable Long eventId, @RequestParam Long creatorId) {
@@ -738,8 +755,9 @@ public class EventController {
             response.put("status", registration.isPresent() ? registration.get().getStatus().toString() : "NOT_REGISTERED");
 
             // Include waitlist position if waitlisted
-            if (isWaitlisted && registration.get().getWaitlistPosition() != null) {
-                response.put("waitlistPosition", registration.get().getWaitlistPosition());
+            if (isWaitlisted && registration.get().getWaitlistSequence() != null) {
+                response.put("waitlistPosition", registrationRepository.countWaitlistPosition(
+                    eventId, RegistrationStatus.WAITLISTED, registration.get().getWaitlistSequence()));
             }
 
             return ResponseEntity.ok(response);
@@ -802,28 +820,26 @@ public class EventController {
         try {
             List<EventComment> comments = commentRepository.findByEventIdAndIsDeletedOrderByCreatedAtDesc(eventId, false);
 
-            // Batch fetch users to avoid N+1 queries
+            // Authors come from the shared profile cache; only uncached ones are fetched (in one batch)
             Set<Long> userIds = new HashSet<>();
             for (EventComment comment : comments) {
                 userIds.add(comment.getUserId());
             }
-            Map<Long, User> userMap = new HashMap<>();
-            for (User u : userRepository.findAllById(userIds)) {
-                userMap.put(u.getId(), u);
-            }
+            Map<Long, AuthorProfile> authors = commentAuthorCache.getAuthors(userIds);
 
             List<Map<String, Object>> response = new ArrayList<>();
             for (EventComment comment : comments) {
-                User user = userMap.get(comment.getUserId());
+                AuthorProfile author = authors.get(comment.getUserId());
                 Map<String, Object> commentData = new HashMap<>();
                 commentData.put("id", comment.getId());
+                commentData.put("parentId", comment.getParentId());
                 commentData.put("comment", comment.getComment());
                 commentData.put("createdAt", comment.getCreatedAt().toString());
                 commentData.put("updatedAt", comment.getUpdatedAt().toString());
                 commentData.put("userId", comment.getUserId());
 
-                if (user != null) {
-                    commentData.put("userName", user.getFirstName() + " " + user.getLastName());
+                if (author != null) {
+                    commentData.put("userName", author.name());
                 }
 
                 response.add(commentData);
@@ -844,7 +860,23 @@ public class EventController {
         }
     }
 
-    // Add comment to event
+    // Cursor-paginated comment thread (see KeysetCursor): top-level comments newest first, each with its replyCount
+    @GetMapping("/{eventId}/comments/page")
+    public ResponseEntity<?> getEventCommentsPage(@PathVariable Long eventId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(commentThreadService.getEventComments(eventId, cursor, size));
+    }
+
+    // Replies to one comment, oldest first, same cursor contract as above
+    @GetMapping("/{eventId}/comments/{commentId}/replies")
+    public ResponseEntity<?> getEventCommentReplies(@PathVariable Long eventId, @PathVariable Long commentId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(commentThreadService.getEventReplies(eventId, commentId, cursor, size));
+    }
+
+    // Add comment to event (pass parentId to reply to a comment)
     @PostMapping("/{eventId}/comments")
     @Transactional
     public ResponseEntity<?> addEventComment(@PathVariable Long eventId,
@@ -864,7 +896,10 @@ public class EventController {
             return ResponseEntity.badRequest().body(Map.of("error", "Comment cannot be empty"));
         }
 
+        Long parentId = commentData.get("parentId") != null ? Long.valueOf(commentData.get("parentId").toString()) : null;
+
         EventComment comment = new EventComment(eventId, currentUser.getId(), commentText);
+        comment.setParentId(commentThreadService.resolveEventParent(eventId, parentId));
         EventComment savedComment = commentRepository.save(comment);
 
         return ResponseEntity.ok(Map.of("id", savedComment.getId(), "message", "Comment added successfully"));
@@ -1119,6 +1154,7 @@ public class EventController {
      * Admin/Organizer only
      */
     @PostMapping("/{eventId}/attendance")
+    @Transactional
     public ResponseEntity<?> markAttendance(@PathVariable Long eventId, @RequestBody com.smartuniversity.dto.AttendanceRequest request) {
         try {
             // Validate event exists
@@ -1142,6 +1178,8 @@ public class EventController {
             attendance.setNotes(request.getNotes());
 
             com.smartuniversity.model.EventAttendance saved = attendanceRepository.save(attendance);
+            eventRepository.adjustAttendedCount(eventId, 1);
+            publishAttendanceStats(eventId);
 
             return ResponseEntity.ok(Map.of(
                 "message", "Attendance marked successfully",
@@ -1155,6 +1193,257 @@ public class EventController {
         }
     }
 
+    // Bulk check-in: mark attendance for many registered users in one call (e.g. a batch of door scans)
+    @PostMapping("/{eventId}/attendance/bulk")
+    @Transactional
+    public ResponseEntity<?> markAttendanceBulk(@PathVariable Long eventId,
+            @RequestBody com.smartuniversity.dto.BulkAttendanceRequest request,
+            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+        try {
+            User currentUser = authUtils.getUserFromAuthHeader(authHeader);
+            if (currentUser == null) {
+                return ResponseEntity.status(401).body(Map.of("error", "Authentication required"));
+            }
+
+            Event event = eventRepository.findById(eventId)
+                .orElseThrow(() -> new NotFoundException("Event not found"));
+
+            if (!canManageAttendance(event, currentUser)) {
+                return ResponseEntity.status(403).body(Map.of("error", "Only the event creator or an admin can check in attendees"));
+            }
+
+            if (request.getUserIds() == null || request.getUserIds().isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "userIds is required"));
+            }
+            if (request.getUserIds().size() > MAX_BULK_CHECK_INS) {
+                return ResponseEntity.badRequest().body(Map.of("error", "At most " + MAX_BULK_CHECK_INS + " check-ins per request"));
+            }
+
+            // De-duplicate scans, keeping scan order
+            Set<Long> requested = new LinkedHashSet<>();
+            for (Long userId : request.getUserIds()) {
+                if (userId != null) {
+                    requested.add(userId);
+                }
+            }
+
+            // One query each: who is registered, who is already checked in
+            Set<Long> registered = new HashSet<>(registrationRepository.findUserIdsByEventIdAndStatus(
+                eventId, RegistrationStatus.REGISTERED, requested));
+            Set<Long> alreadyCheckedIn = new HashSet<>(attendanceRepository.findCheckedInUserIds(eventId, requested));
+
+            List<Long> toInsert = new ArrayList<>();
+            List<Long> notRegistered = new ArrayList<>();
+            List<Long> duplicates = new ArrayList<>();
+            for (Long userId : requested) {
+                if (!registered.contains(userId)) {
+                    notRegistered.add(userId);
+                } else if (alreadyCheckedIn.contains(userId)) {
+                    duplicates.add(userId);
+                } else {
+                    toInsert.add(userId);
+                }
+            }
+
+            List<Long> checkedIn = toInsert.isEmpty() ? List.of() : attendanceRepository.batchInsertAttendance(
+                eventId, toInsert, currentUser.getId(), LocalDateTime.now(), request.getNotes());
+            if (!checkedIn.isEmpty()) {
+                eventRepository.adjustAttendedCount(eventId, checkedIn.size());
+                publishAttendanceStats(eventId);
+            }
+
+            // Rows a concurrent scanner inserted between our read and write count as duplicates
+            if (checkedIn.size() < toInsert.size()) {
+                Set<Long> inserted = new HashSet<>(checkedIn);
+                for (Long userId : toInsert) {
+                    if (!inserted.contains(userId)) {
+                        duplicates.add(userId);
+                    }
+                }
+            }
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", checkedIn.size() + " attendee(s) checked in");
+            response.put("checkedIn", checkedIn);
+            response.put("alreadyCheckedIn", duplicates);
+            response.put("notRegistered", notRegistered);
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            String msg = e.getMessage();
+            if (msg != null && msg.toLowerCase().contains("not found")) {
+                return ResponseEntity.status(404).body(Map.of("error", msg));
+            }
+            return ResponseEntity.badRequest().body(Map.of("error", msg));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of("error", "Internal server error"));
+        }
+    }
+
+    // Offline sync: apply a batch of check-ins queued by a door device. Items carry idempotency keys,
+    // so resending the same batch after a reconnect is safe; results are returned in request order.
+    @PostMapping("/{eventId}/attendance/sync")
+    @Transactional
+    public ResponseEntity<?> syncAttendance(@PathVariable Long eventId,
+            @RequestBody AttendanceSyncRequest request,
+            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+        try {
+            User currentUser = authUtils.getUserFromAuthHeader(authHeader);
+            if (currentUser == null) {
+                return ResponseEntity.status(401).body(Map.of("error", "Authentication required"));
+            }
+
+            Event event = eventRepository.findById(eventId)
+                .orElseThrow(() -> new NotFoundException("Event not found"));
+
+            if (!canManageAttendance(event, currentUser)) {
+                return ResponseEntity.status(403).body(Map.of("error", "Only the event creator or an admin can check in attendees"));
+            }
+
+            List<AttendanceSyncRequest.Item> items = request.getItems();
+            if (items == null || items.isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "items is required"));
+            }
+            if (items.size() > MAX_BULK_CHECK_INS) {
+                return ResponseEntity.badRequest().body(Map.of("error", "At most " + MAX_BULK_CHECK_INS + " check-ins per request"));
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            AttendanceSyncResult[] results = new AttendanceSyncResult[items.size()];
+            SyncedCheckIn[] checkIns = new SyncedCheckIn[items.size()];
+
+            // Validate items and drop repeated keys within the batch
+            Set<String> batchKeys = new HashSet<>();
+            for (int i = 0; i < items.size(); i++) {
+                AttendanceSyncRequest.Item item = items.get(i);
+                String key = item.getKey();
+                if (key == null || key.isBlank() || key.length() > 100 || item.getUserId() == null) {
+                    results[i] = AttendanceSyncResult.INVALID;
+                    continue;
+                }
+                LocalDateTime scannedAt = now;
+                if (item.getScannedAt() != null) {
+                    try {
+                        scannedAt = parseScannedAt(item.getScannedAt());
+                    } catch (java.time.format.DateTimeParseException e) {
+                        results[i] = AttendanceSyncResult.INVALID;
+                        continue;
+                    }
+                    if (scannedAt.isAfter(now)) {
+                        scannedAt = now; // Device clock ahead of ours
+                    }
+                }
+                if (!batchKeys.add(key)) {
+                    results[i] = AttendanceSyncResult.DUPLICATE;
+                    continue;
+                }
+                checkIns[i] = new SyncedCheckIn(item.getUserId(), key, scannedAt, item.getNotes());
+            }
+
+            // One query each: applied keys, registered users, users already checked in
+            Set<Long> userIds = new HashSet<>();
+            for (SyncedCheckIn checkIn : checkIns) {
+                if (checkIn != null) {
+                    userIds.add(checkIn.userId());
+                }
+            }
+            Set<String> appliedKeys = batchKeys.isEmpty() ? Set.of() : new HashSet<>(attendanceRepository.findExistingSyncKeys(eventId, batchKeys));
+            Set<Long> registered = userIds.isEmpty() ? Set.of() : new HashSet<>(registrationRepository.findUserIdsByEventIdAndStatus(
+                eventId, RegistrationStatus.REGISTERED, userIds));
+            Set<Long> checkedIn = userIds.isEmpty() ? Set.of() : new HashSet<>(attendanceRepository.findCheckedInUserIds(eventId, userIds));
+
+            List<Integer> insertIndexes = new ArrayList<>();
+            List<SyncedCheckIn> toInsert = new ArrayList<>();
+            List<SyncedCheckIn> toMerge = new ArrayList<>();
+            Set<Long> insertingUsers = new HashSet<>();
+            for (int i = 0; i < checkIns.length; i++) {
+                SyncedCheckIn checkIn = checkIns[i];
+                if (checkIn == null) {
+                    continue;
+                }
+                if (appliedKeys.contains(checkIn.syncKey())) {
+                    results[i] = AttendanceSyncResult.DUPLICATE;
+                } else if (!registered.contains(checkIn.userId())) {
+                    results[i] = AttendanceSyncResult.NOT_REGISTERED;
+                } else if (checkedIn.contains(checkIn.userId()) || !insertingUsers.add(checkIn.userId())) {
+                    // Scanned at another door or earlier in this batch: keep the earliest time
+                    results[i] = AttendanceSyncResult.MERGED;
+                    toMerge.add(checkIn);
+                } else {
+                    insertIndexes.add(i);
+                    toInsert.add(checkIn);
+                }
+            }
+
+            if (!toInsert.isEmpty()) {
+                boolean[] inserted = attendanceRepository.batchInsertSyncedAttendance(eventId, toInsert, currentUser.getId());
+
+                // Rows skipped by a concurrent sync: same key means a retry raced us, otherwise merge
+                List<Integer> skipped = new ArrayList<>();
+                for (int n = 0; n < inserted.length; n++) {
+                    if (inserted[n]) {
+                        results[insertIndexes.get(n)] = AttendanceSyncResult.APPLIED;
+                    } else {
+                        skipped.add(n);
+                    }
+                }
+                if (!skipped.isEmpty()) {
+                    List<String> skippedKeys = new ArrayList<>();
+                    for (int n : skipped) {
+                        skippedKeys.add(toInsert.get(n).syncKey());
+                    }
+                    Set<String> raced = new HashSet<>(attendanceRepository.findExistingSyncKeys(eventId, skippedKeys));
+                    for (int n : skipped) {
+                        SyncedCheckIn checkIn = toInsert.get(n);
+                        if (raced.contains(checkIn.syncKey())) {
+                            results[insertIndexes.get(n)] = AttendanceSyncResult.DUPLICATE;
+                        } else {
+                            results[insertIndexes.get(n)] = AttendanceSyncResult.MERGED;
+                            toMerge.add(checkIn);
+                        }
+                    }
+                }
+            }
+
+            if (!toMerge.isEmpty()) {
+                attendanceRepository.batchMergeEarliestCheckIn(eventId, toMerge);
+            }
+
+            int applied = 0;
+            for (AttendanceSyncResult result : results) {
+                if (result == AttendanceSyncResult.APPLIED) {
+                    applied++;
+                }
+            }
+            if (applied > 0) {
+                eventRepository.adjustAttendedCount(eventId, applied);
+                publishAttendanceStats(eventId);
+            }
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("results", results);
+            response.put("applied", applied);
+            response.put("serverTime", now.toString());
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            String msg = e.getMessage();
+            if (msg != null && msg.toLowerCase().contains("not found")) {
+                return ResponseEntity.status(404).body(Map.of("error", msg));
+            }
+            return ResponseEntity.badRequest().body(Map.of("error", msg));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of("error", "Internal server error"));
+        }
+    }
+
+    // Device scan time in server-local time: offset timestamps (Z, +05:30) are converted, plain ones taken as-is
+    private static LocalDateTime parseScannedAt(String value) {
+        try {
+            return OffsetDateTime.parse(value).atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        } catch (java.time.format.DateTimeParseException e) {
+            return LocalDateTime.parse(value);
+        }
+    }
+
     /**
      * Get all attendance for an event
      * Admin/Organizer only
@@ -1216,29 +1505,10 @@ public class EventController {
     @GetMapping("/{eventId}/attendance/stats")
     public ResponseEntity<?> getAttendanceStats(@PathVariable Long eventId) {
         try {
-            // Validate event exists
-            Event event = eventRepository.findById(eventId)
+            // Registration and attendance totals come from the event's denormalized counters
+            com.smartuniversity.dto.AttendanceStatsResponse stats = eventRepository.findAttendanceStats(eventId)
                 .orElseThrow(() -> new NotFoundException("Event not found"));
 
-            // Count registrations
-            long totalRegistered = registrationRepository.countByEventIdAndStatus(eventId, RegistrationStatus.REGISTERED);
-            long totalWaitlisted = registrationRepository.countByEventIdAndStatus(eventId, RegistrationStatus.WAITLISTED);
-
-            // Count attendance
-            long totalAttended = attendanceRepository.countByEventId(eventId);
-
-            // Calculate attendance rate
-            double attendanceRate = totalRegistered > 0 ? (double) totalAttended / totalRegistered * 100 : 0.0;
-
-            com.smartuniversity.dto.AttendanceStatsResponse stats = new com.smartuniversity.dto.AttendanceStatsResponse(
-                event.getId(),
-                event.getTitle(),
-                totalRegistered,
-                totalAttended,
-                totalWaitlisted,
-                Math.round(attendanceRate * 100.0) / 100.0  // Round to 2 decimal places
-            );
-
             return ResponseEntity.ok(stats);
 
         } catch (Exception e) {
@@ -1253,9 +1523,13 @@ public class EventController {
      */
     @DeleteMapping("/{eventId}/attendance/{userId}")
     @PreAuthorize("hasRole('ADMIN')")
+    @Transactional
     public ResponseEntity<?> removeAttendance(@PathVariable Long eventId, @PathVariable Long userId) {
         try {
-            attendanceRepository.deleteByEventIdAndUserId(eventId, userId);
+            if (attendanceRepository.deleteByEventIdAndUserId(eventId, userId) > 0) {
+                eventRepository.adjustAttendedCount(eventId, -1);
+                publishAttendanceStats(eventId);
+            }
             return ResponseEntity.ok(Map.of("message", "Attendance record removed successfully"));
         } catch (Exception e) {
             e.printStackTrace();
@@ -1302,6 +1576,55 @@ public class EventController {
         }
     }
 
+    /**
+     * Push the event's running attendance totals to /topic/events/{eventId}/attendance.
+     * Inside a transaction this waits for the commit, so subscribers never see uncommitted totals.
+     */
+    private void publishAttendanceStats(Long eventId) {
+        Runnable publish = () -> {
+            try {
+                eventRepository.findAttendanceStats(eventId).ifPresent(stats ->
+                    messagingTemplate.convertAndSend("/topic/events/" + eventId + "/attendance", stats));
+            } catch (Exception e) {
+                System.err.println("Failed to publish attendance stats for event " + eventId + ": " + e.getMessage());
+            }
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish.run();
+                }
+            });
+        } else {
+            publish.run();
+        }
+    }
+
+    private static boolean canManageAttendance(Event event, User user) {
+        return event.getCreatorId().equals(user.getId()) || user.getRole() == User.UserRole.ADMIN;
+    }
+
+    private static int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, 100));
+    }
+
+    /**
+     * Build a feed page from up to pageSize + 1 rows; the extra row only signals that more exist
+     */
+    private Map<String, Object> buildEventPage(List<EventSummary> rows, int pageSize) {
+        boolean hasNext = rows.size() > pageSize;
+        List<EventSummary> events = hasNext ? rows.subList(0, pageSize) : rows;
+
+        EventSummary last = events.isEmpty() ? null : events.get(events.size() - 1);
+        Map<String, Object> response = new HashMap<>();
+        response.put("events", events);
+        response.put("hasNext", hasNext);
+        response.put("nextCursor", hasNext ? new KeysetCursor(last.eventDate(), last.id()).encode() : null);
+        return response;
+    }
+
     // Helper method to build event response
     private Map<String, Object> buildEventResponse(Event event) {
         Map<String, Object> eventData = new HashMap<>();
@@ -2,6 +2,7 @@ package com.smartuniversity.controller;
 
 import com.smartuniversity.model.User;
 import com.smartuniversity.repository.UserRepository;
+import com.smartuniversity.security.PrincipalCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
@@ -22,6 +23,9 @@ public class SetupController {
     
     @Autowired
     private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private PrincipalCache principalCache;
     
     /**
      * Create initial admin user (for setup purposes)
@@ -87,6 +91,7 @@ public class SetupController {
         for (User admin : admins) {
             admin.setEmailVerified(true);
             userRepository.save(admin);
+            principalCache.evict(admin.getUsername());
         }
         return ResponseEntity.ok(Map.of("message", "Admin email(s) verified successfully"));
     }
@@ -2,6 +2,8 @@ package com.smartuniversity.controller;
 
 import com.smartuniversity.model.User;
 import com.smartuniversity.repository.UserRepository;
+import com.smartuniversity.security.PrincipalCache;
+import com.smartuniversity.service.CommentAuthorCache;
 import com.smartuniversity.service.S3Service;
 import com.smartuniversity.util.AuthUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,6 +29,12 @@ public class UserController {
 
     @Autowired
     AuthUtils authUtils;
+
+    @Autowired
+    PrincipalCache principalCache;
+
+    @Autowired
+    CommentAuthorCache commentAuthorCache;
     
     @GetMapping("/profile")
     public ResponseEntity<?> getUserProfile(@RequestHeader(value = "Authorization", required = false) String authHeader) {
@@ -72,6 +80,8 @@ public class UserController {
         user.setPreferences(updatedUser.getPreferences());
         
         userRepository.save(user);
+        principalCache.evict(user.getUsername());
+        commentAuthorCache.evict(user.getId());
         return ResponseEntity.ok("Profile updated successfully!");
     }
 
@@ -115,6 +125,8 @@ public class UserController {
             // Update user's profile image URL
             user.setImageUrl(imageUrl);
             userRepository.save(user);
+            principalCache.evict(user.getUsername());
+            commentAuthorCache.evict(user.getId());
 
             Map<String, Object> response = new HashMap<>();
             response.put("imageUrl", imageUrl);
@@ -145,6 +157,8 @@ public class UserController {
             
             user.setImageUrl(null);
             userRepository.save(user);
+            principalCache.evict(user.getUsername());
+            commentAuthorCache.evict(user.getId());
             
             return ResponseEntity.ok("Profile image deleted successfully");
         } catch (Exception e) {
@@ -167,6 +181,8 @@ public class UserController {
             return ResponseEntity.notFound().build();
         }
         userRepository.deleteById(id);
+        principalCache.evict(id);
+        commentAuthorCache.evict(id);
         return ResponseEntity.ok("User deleted successfully!");
     }
 }
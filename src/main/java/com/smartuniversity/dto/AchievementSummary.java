@@ -0,0 +1,43 @@
+package com.smartuniversity.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import com.smartuniversity.model.StudentAchievement.ApprovalStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Compact achievement card for the paginated listings, built by a JPQL constructor expression
+ * (see StudentAchievementRepository). Omits description and moderation fields.
+ */
+public record AchievementSummary(
+        Long id,
+        String title,
+        String category,
+        String imageUrl,
+        @JsonSerialize(using = ToStringSerializer.class) LocalDateTime achievementDate,
+        @JsonSerialize(using = ToStringSerializer.class) LocalDateTime createdAt,
+        ApprovalStatus status,
+        Long studentId,
+        String studentName,
+        String studentImageUrl,
+        int likes,
+        int comments,
+        int shares) {
+
+    /**
+     * Projection constructor: studentName is joined from the student's first and last name
+     */
+    public AchievementSummary(Long id, String title, String category, String imageUrl, LocalDateTime achievementDate,
+                              LocalDateTime createdAt, ApprovalStatus status, Long studentId, String firstName,
+                              String lastName, String studentImageUrl, Integer likes, Integer comments, Integer shares) {
+        this(id, title, category, imageUrl, achievementDate, createdAt, status, studentId,
+                firstName != null ? firstName + " " + lastName : null, studentImageUrl,
+                likes != null ? likes : 0, comments != null ? comments : 0, shares != null ? shares : 0);
+    }
+
+    public AchievementSummary withCounts(int likes, int comments, int shares) {
+        return new AchievementSummary(id, title, category, imageUrl, achievementDate, createdAt, status, studentId,
+                studentName, studentImageUrl, likes, comments, shares);
+    }
+}
@@ -21,6 +21,18 @@ public class AttendanceStatsResponse {
         this.attendanceRate = attendanceRate;
     }
 
+    // Projection constructor (see EventRepository.findAttendanceStats): derives the rate from the counters
+    public AttendanceStatsResponse(Long eventId, String eventTitle, Integer totalRegistered,
+                                 Integer totalAttended, Integer totalWaitlisted) {
+        this(eventId, eventTitle,
+             totalRegistered != null ? totalRegistered : 0,
+             totalAttended != null ? totalAttended : 0,
+             totalWaitlisted != null ? totalWaitlisted : 0,
+             0.0);
+        double rate = this.totalRegistered > 0 ? (double) this.totalAttended / this.totalRegistered * 100 : 0.0;
+        this.attendanceRate = Math.round(rate * 100.0) / 100.0;  // Round to 2 decimal places
+    }
+
     // Getters and Setters
     public Long getEventId() {
         return eventId;
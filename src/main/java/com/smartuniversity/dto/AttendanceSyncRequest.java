@@ -0,0 +1,73 @@
+package com.smartuniversity.dto;
+
+import java.util.List;
+
+/**
+ * A batch of check-ins queued by a door device while offline.
+ * Each item carries a client-generated idempotency key, so the whole batch can be resent safely.
+ */
+public class AttendanceSyncRequest {
+    private String deviceId;
+    private List<Item> items;
+
+    public AttendanceSyncRequest() {
+    }
+
+    public String getDeviceId() {
+        return deviceId;
+    }
+
+    public void setDeviceId(String deviceId) {
+        this.deviceId = deviceId;
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Item> items) {
+        this.items = items;
+    }
+
+    public static class Item {
+        private String key;
+        private Long userId;
+        private String scannedAt; // ISO 8601, device clock
+        private String notes;
+
+        public Item() {
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public void setKey(String key) {
+            this.key = key;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public void setUserId(Long userId) {
+            this.userId = userId;
+        }
+
+        public String getScannedAt() {
+            return scannedAt;
+        }
+
+        public void setScannedAt(String scannedAt) {
+            this.scannedAt = scannedAt;
+        }
+
+        public String getNotes() {
+            return notes;
+        }
+
+        public void setNotes(String notes) {
+            this.notes = notes;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.smartuniversity.dto;
+
+/**
+ * Outcome of one synced check-in, returned in request order
+ */
+public enum AttendanceSyncResult {
+    APPLIED,        // New check-in recorded
+    DUPLICATE,      // Idempotency key already applied (safe retry)
+    MERGED,         // User was already checked in; the earliest scan time was kept
+    NOT_REGISTERED, // User holds no REGISTERED registration for the event
+    INVALID         // Missing key/user or unparseable timestamp
+}
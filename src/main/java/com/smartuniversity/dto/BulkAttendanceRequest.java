@@ -0,0 +1,32 @@
+package com.smartuniversity.dto;
+
+import java.util.List;
+
+public class BulkAttendanceRequest {
+    private List<Long> userIds;
+    private String notes;
+
+    public BulkAttendanceRequest() {
+    }
+
+    public BulkAttendanceRequest(List<Long> userIds, String notes) {
+        this.userIds = userIds;
+        this.notes = notes;
+    }
+
+    public List<Long> getUserIds() {
+        return userIds;
+    }
+
+    public void setUserIds(List<Long> userIds) {
+        this.userIds = userIds;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+}
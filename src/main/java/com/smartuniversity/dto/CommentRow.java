@@ -0,0 +1,21 @@
+package com.smartuniversity.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One event or achievement comment as read by the paginated comment threads, built by a JPQL
+ * constructor expression (see EventCommentRepository / AchievementCommentRepository).
+ */
+public record CommentRow(
+        Long id,
+        Long parentId,
+        Long userId,
+        String comment,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        Boolean deleted) {
+
+    public boolean isDeleted() {
+        return Boolean.TRUE.equals(deleted);
+    }
+}
@@ -0,0 +1,64 @@
+package com.smartuniversity.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import com.smartuniversity.model.Event;
+import com.smartuniversity.model.Event.ApprovalStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Full event view returned by the event listing and detail endpoints.
+ *
+ * Listing queries build it directly with a JPQL constructor expression (see EventRepository),
+ * so no Event entities are hydrated. Dates serialize via toString() to keep the existing
+ * JSON format.
+ */
+public record EventResponse(
+        Long id,
+        String title,
+        String description,
+        String imageUrl,
+        @JsonSerialize(using = ToStringSerializer.class) LocalDateTime eventDate,
+        @JsonSerialize(using = ToStringSerializer.class) LocalDateTime eventTime,
+        @JsonSerialize(using = ToStringSerializer.class) LocalDateTime endTime,
+        @JsonSerialize(using = ToStringSerializer.class) LocalDateTime registrationDeadline,
+        String category,
+        String location,
+        String organizerName,
+        Integer maxAttendees,
+        ApprovalStatus status,
+        Long creatorId,
+        @JsonSerialize(using = ToStringSerializer.class) LocalDateTime createdAt,
+        String rejectionReason,
+        @JsonProperty("isRecurring") Boolean isRecurring,
+        String recurrencePattern,
+        Integer registeredCount,
+        Integer waitlistCount,
+        Integer spotsAvailable) {
+
+    /**
+     * Projection constructor: spotsAvailable is derived from capacity and registeredCount
+     */
+    public EventResponse(Long id, String title, String description, String imageUrl,
+                         LocalDateTime eventDate, LocalDateTime eventTime, LocalDateTime endTime,
+                         LocalDateTime registrationDeadline, String category, String location,
+                         String organizerName, Integer maxAttendees, ApprovalStatus status, Long creatorId,
+                         LocalDateTime createdAt, String rejectionReason, Boolean isRecurring,
+                         String recurrencePattern, Integer registeredCount, Integer waitlistCount) {
+        this(id, title, description, imageUrl, eventDate, eventTime, endTime, registrationDeadline,
+                category, location, organizerName, maxAttendees, status, creatorId, createdAt,
+                rejectionReason, isRecurring, recurrencePattern, registeredCount, waitlistCount,
+                maxAttendees != null && registeredCount != null ? maxAttendees - registeredCount : null);
+    }
+
+    public static EventResponse from(Event event) {
+        return new EventResponse(event.getId(), event.getTitle(), event.getDescription(), event.getImageUrl(),
+                event.getEventDate(), event.getEventTime(), event.getEndTime(), event.getRegistrationDeadline(),
+                event.getCategory(), event.getLocation(), event.getOrganizerName(), event.getMaxAttendees(),
+                event.getStatus(), event.getCreatorId(), event.getCreatedAt(), event.getRejectionReason(),
+                event.getIsRecurring(), event.getRecurrencePattern(),
+                event.getRegisteredCount(), event.getWaitlistCount());
+    }
+}
@@ -0,0 +1,38 @@
+package com.smartuniversity.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
+import java.time.LocalDateTime;
+
+/**
+ * Compact event card for the paginated feeds, built by a JPQL constructor expression
+ * (see EventRepository). Omits description, moderation and recurrence fields.
+ */
+public record EventSummary(
+        Long id,
+        String title,
+        String imageUrl,
+        @JsonSerialize(using = ToStringSerializer.class) LocalDateTime eventDate,
+        @JsonSerialize(using = ToStringSerializer.class) LocalDateTime eventTime,
+        @JsonSerialize(using = ToStringSerializer.class) LocalDateTime endTime,
+        @JsonSerialize(using = ToStringSerializer.class) LocalDateTime registrationDeadline,
+        String category,
+        String location,
+        String organizerName,
+        Integer maxAttendees,
+        Integer registeredCount,
+        Integer waitlistCount,
+        Integer spotsAvailable) {
+
+    /**
+     * Projection constructor: spotsAvailable is derived from capacity and registeredCount
+     */
+    public EventSummary(Long id, String title, String imageUrl, LocalDateTime eventDate, LocalDateTime eventTime,
+                        LocalDateTime endTime, LocalDateTime registrationDeadline, String category, String location,
+                        String organizerName, Integer maxAttendees, Integer registeredCount, Integer waitlistCount) {
+        this(id, title, imageUrl, eventDate, eventTime, endTime, registrationDeadline, category, location, organizerName,
+                maxAttendees, registeredCount, waitlistCount,
+                maxAttendees != null && registeredCount != null ? maxAttendees - registeredCount : null);
+    }
+}
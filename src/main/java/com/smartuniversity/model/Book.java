@@ -69,7 +69,8 @@ public class Book {
     @Column
     private Long fileSize; // in bytes
 
-    @Column
+    // Only changed through EngagementCounterBuffer's batched updates, never by entity saves
+    @Column(updatable = false)
     private Integer downloadCount = 0;
 
     // Owner information
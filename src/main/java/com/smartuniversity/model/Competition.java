@@ -1,6 +1,8 @@
 package com.smartuniversity.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+
 import java.time.LocalDateTime;
 
 @Entity
@@ -71,6 +73,12 @@ public class Competition {
     @Column(nullable = true)
     private Boolean hidden = false; // For soft delete by admin
 
+    // Denormalized count of ENROLLED rows. Only changed through the atomic updates in
+    // CompetitionRepository (never written by entity saves, so a stale entity cannot clobber it).
+    @ColumnDefault("0")
+    @Column(insertable = false, updatable = false)
+    private Integer enrolledCount = 0;
+
     public enum ApprovalStatus {
         PENDING, APPROVED, REJECTED
     }
@@ -270,6 +278,10 @@ public class Competition {
         return hidden != null && hidden;
     }
 
+    public int getEnrolledCount() {
+        return enrolledCount != null ? enrolledCount : 0;
+    }
+
     public void setHidden(boolean hidden) {
         this.hidden = hidden;
     }
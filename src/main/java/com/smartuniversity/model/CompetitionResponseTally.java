@@ -0,0 +1,83 @@
+package com.smartuniversity.model;
+
+import jakarta.persistence.*;
+
+/**
+ * How many active enrollments gave a particular answer to a competition form field.
+ *
+ * One row per (competition, field, answer) for dropdown, checkbox and number fields, kept
+ * up to date on enroll/withdraw so answer distributions never rescan the formResponses JSON.
+ */
+@Entity
+@Table(name = "competition_response_tallies", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"competition_id", "field_label", "answer_value"})
+})
+public class CompetitionResponseTally {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "competition_id", nullable = false)
+    private Long competitionId;
+
+    @Column(name = "field_label", nullable = false)
+    private String fieldLabel;
+
+    @Column(name = "answer_value", nullable = false, length = 500)
+    private String answerValue;
+
+    @Column(name = "answer_count", nullable = false)
+    private int answerCount;
+
+    // Constructors
+    public CompetitionResponseTally() {}
+
+    public CompetitionResponseTally(Long competitionId, String fieldLabel, String answerValue, int answerCount) {
+        this.competitionId = competitionId;
+        this.fieldLabel = fieldLabel;
+        this.answerValue = answerValue;
+        this.answerCount = answerCount;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getCompetitionId() {
+        return competitionId;
+    }
+
+    public void setCompetitionId(Long competitionId) {
+        this.competitionId = competitionId;
+    }
+
+    public String getFieldLabel() {
+        return fieldLabel;
+    }
+
+    public void setFieldLabel(String fieldLabel) {
+        this.fieldLabel = fieldLabel;
+    }
+
+    public String getAnswerValue() {
+        return answerValue;
+    }
+
+    public void setAnswerValue(String answerValue) {
+        this.answerValue = answerValue;
+    }
+
+    public int getAnswerCount() {
+        return answerCount;
+    }
+
+    public void setAnswerCount(int answerCount) {
+        this.answerCount = answerCount;
+    }
+}
@@ -1,10 +1,13 @@
 package com.smartuniversity.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "events")
+@Table(name = "events", indexes = {
+    @Index(name = "idx_events_status_event_date", columnList = "status, event_date, id")
+})
 public class Event {
 
     @Id
@@ -74,6 +77,25 @@ public class Event {
     @Column(length = 50)
     private String recurrencePattern; // WEEKLY, MONTHLY, etc. (optional for future)
 
+    // Denormalized registration counters. Only changed through the atomic increments in
+    // EventRepository (never written by entity saves, so a stale entity cannot clobber them).
+    @ColumnDefault("0")
+    @Column(insertable = false, updatable = false)
+    private Integer registeredCount = 0;
+
+    @ColumnDefault("0")
+    @Column(insertable = false, updatable = false)
+    private Integer waitlistCount = 0;
+
+    @ColumnDefault("0")
+    @Column(insertable = false, updatable = false)
+    private Integer attendedCount = 0;
+
+    // Last waitlist sequence handed out for this event (monotonic, never reused)
+    @ColumnDefault("0")
+    @Column(insertable = false, updatable = false)
+    private Long waitlistSequence = 0L;
+
     public enum ApprovalStatus {
         PENDING, APPROVED, REJECTED
     }
@@ -284,4 +306,20 @@ public class Event {
     public void setRecurrencePattern(String recurrencePattern) {
         this.recurrencePattern = recurrencePattern;
     }
+
+    public int getRegisteredCount() {
+        return registeredCount != null ? registeredCount : 0;
+    }
+
+    public int getWaitlistCount() {
+        return waitlistCount != null ? waitlistCount : 0;
+    }
+
+    public int getAttendedCount() {
+        return attendedCount != null ? attendedCount : 0;
+    }
+
+    public long getWaitlistSequence() {
+        return waitlistSequence != null ? waitlistSequence : 0L;
+    }
 }
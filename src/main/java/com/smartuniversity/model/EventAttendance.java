@@ -5,7 +5,8 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "event_attendance", uniqueConstraints = {
-    @UniqueConstraint(columnNames = {"event_id", "user_id"})
+    @UniqueConstraint(columnNames = {"event_id", "user_id"}),
+    @UniqueConstraint(name = "uk_event_attendance_event_sync_key", columnNames = {"event_id", "sync_key"})
 })
 public class EventAttendance {
 
@@ -33,6 +34,10 @@ public class EventAttendance {
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    // Client idempotency key for check-ins synced from door devices, unique per event (null for direct check-ins)
+    @Column(name = "sync_key", length = 100, updatable = false)
+    private String syncKey;
+
     // Constructors
     public EventAttendance() {
     }
@@ -100,6 +105,14 @@ public class EventAttendance {
         this.createdAt = createdAt;
     }
 
+    public String getSyncKey() {
+        return syncKey;
+    }
+
+    public void setSyncKey(String syncKey) {
+        this.syncKey = syncKey;
+    }
+
     @PrePersist
     protected void onCreate() {
         if (createdAt == null) {
@@ -17,6 +17,10 @@ public class EventComment {
     @Column(name = "user_id", nullable = false)
     private Long userId;
 
+    // Top-level comment this replies to; null for top-level comments (threads are one level deep)
+    @Column(name = "parent_id")
+    private Long parentId;
+
     @Column(length = 1000, nullable = false)
     private String comment;
 
@@ -73,6 +77,14 @@ public class EventComment {
         this.userId = userId;
     }
 
+    public Long getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(Long parentId) {
+        this.parentId = parentId;
+    }
+
     public String getComment() {
         return comment;
     }
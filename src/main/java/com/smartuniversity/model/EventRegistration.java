@@ -5,7 +5,8 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "event_registrations",
-       uniqueConstraints = @UniqueConstraint(columnNames = {"event_id", "user_id"}))
+       uniqueConstraints = @UniqueConstraint(columnNames = {"event_id", "user_id"}),
+       indexes = @Index(name = "idx_event_registrations_waitlist", columnList = "event_id, status, waitlist_sequence"))
 public class EventRegistration {
 
     @Id
@@ -31,9 +32,13 @@ public class EventRegistration {
 
     private LocalDateTime movedFromWaitlistAt;
 
-    // Waitlist position (null if not waitlisted, 1-based position if waitlisted)
+    // Waitlist position when the user joined (null if not waitlisted). The live position is
+    // derived from waitlistSequence at read time, so it is not rewritten as the queue moves.
     private Integer waitlistPosition;
 
+    // Per-event waitlist sequence assigned when joining the waitlist (orders the queue)
+    private Long waitlistSequence;
+
     public enum RegistrationStatus {
         REGISTERED, WAITLISTED, CANCELLED
     }
@@ -124,4 +129,12 @@ public class EventRegistration {
     public void setWaitlistPosition(Integer waitlistPosition) {
         this.waitlistPosition = waitlistPosition;
     }
+
+    public Long getWaitlistSequence() {
+        return waitlistSequence;
+    }
+
+    public void setWaitlistSequence(Long waitlistSequence) {
+        this.waitlistSequence = waitlistSequence;
+    }
 }
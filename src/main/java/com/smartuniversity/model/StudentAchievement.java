@@ -51,14 +51,15 @@ public class StudentAchievement {
     @Column(nullable = false)
     private Boolean hidden = false; // For soft delete by admin
 
-    // Engagement metrics
-    @Column(nullable = false)
+    // Engagement metrics. Only changed through EngagementCounterBuffer's batched updates
+    // (never written by entity updates, so a stale entity cannot clobber them).
+    @Column(nullable = false, updatable = false)
     private Integer likes = 0;
 
-    @Column(nullable = false)
+    @Column(nullable = false, updatable = false)
     private Integer comments = 0;
 
-    @Column(nullable = false)
+    @Column(nullable = false, updatable = false)
     private Integer shares = 0;
 
     public enum ApprovalStatus {
@@ -87,6 +87,9 @@ public class User implements UserDetails {
 
     private LocalDateTime emailVerificationOtpExpiry; // OTP expiration time
 
+    // Embedded in issued JWTs; bumped on role/enabled changes so older tokens are rejected
+    private Integer tokenVersion = 0;
+
     public enum UserRole {
         STUDENT, FACULTY, ADMIN
     }
@@ -196,4 +199,12 @@ public class User implements UserDetails {
 
     public LocalDateTime getEmailVerificationOtpExpiry() { return emailVerificationOtpExpiry; }
     public void setEmailVerificationOtpExpiry(LocalDateTime emailVerificationOtpExpiry) { this.emailVerificationOtpExpiry = emailVerificationOtpExpiry; }
+
+    public int getTokenVersion() { return tokenVersion != null ? tokenVersion : 0; }
+    public void setTokenVersion(Integer tokenVersion) { this.tokenVersion = tokenVersion; }
+
+    /**
+     * Invalidate every JWT issued before this call
+     */
+    public void incrementTokenVersion() { this.tokenVersion = getTokenVersion() + 1; }
 }
\ No newline at end of file
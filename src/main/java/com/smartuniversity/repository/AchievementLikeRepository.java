@@ -0,0 +1,37 @@
+package com.smartuniversity.repository;
+
+import com.smartuniversity.model.AchievementLike;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface AchievementLikeRepository extends JpaRepository<AchievementLike, Long> {
+
+    // Record a like; returns 1 if it was new, 0 if the user had already liked the achievement
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO achievement_likes (achievement_id, user_id, created_at) " +
+                   "VALUES (:achievementId, :userId, :now) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("achievementId") Long achievementId, @Param("userId") Long userId,
+                       @Param("now") LocalDateTime now);
+
+    // Remove a like; returns 1 if the user had liked the achievement
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AchievementLike l WHERE l.achievementId = :achievementId AND l.userId = :userId")
+    int deleteByAchievementIdAndUserId(@Param("achievementId") Long achievementId, @Param("userId") Long userId);
+
+    boolean existsByAchievementIdAndUserId(Long achievementId, Long userId);
+
+    // Delete all likes for an achievement (bulk DELETE, not N+1)
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AchievementLike l WHERE l.achievementId = :achievementId")
+    void deleteByAchievementId(@Param("achievementId") Long achievementId);
+}
@@ -18,8 +18,6 @@ public interface BookRepository extends JpaRepository<Book, Long> {
 
     List<Book> findByBookTypeAndAvailableForLending(Book.BookType bookType, Boolean availableForLending);
 
-    List<Book> findByTitleContainingIgnoreCaseOrAuthorContainingIgnoreCase(String title, String author);
-
     // File management queries
     List<Book> findByOwnerIdAndPhotoUrlIsNotNull(Long ownerId);
 
@@ -0,0 +1,23 @@
+package com.smartuniversity.repository;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * Cursor-based enrollment reads for exports, mixed into {@link CompetitionEnrollmentRepository}.
+ */
+public interface CompetitionEnrollmentExportRepository {
+
+    /**
+     * One enrolled participant joined with their user row (name/email null if the user is gone)
+     */
+    record EnrollmentExportRow(Long userId, String firstName, String lastName, String email,
+                               LocalDateTime enrolledAt, String formResponses) {}
+
+    /**
+     * Stream the ENROLLED participants of a competition in enrollment order, handing each row
+     * to the consumer as it is read. Rows are fetched through a server-side cursor, so memory
+     * use does not grow with the number of enrollments.
+     */
+    void streamEnrolledForExport(Long competitionId, Consumer<EnrollmentExportRow> consumer);
+}
@@ -0,0 +1,41 @@
+package com.smartuniversity.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.function.Consumer;
+
+public class CompetitionEnrollmentExportRepositoryImpl implements CompetitionEnrollmentExportRepository {
+
+    private static final int FETCH_SIZE = 500;
+
+    private static final String SELECT_ENROLLED =
+        "SELECT e.user_id, u.first_name, u.last_name, u.email, e.enrolled_at, e.form_responses " +
+        "FROM competition_enrollments e LEFT JOIN users u ON u.id = e.user_id " +
+        "WHERE e.competition_id = ? AND e.status = 'ENROLLED' ORDER BY e.enrolled_at, e.id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional(readOnly = true) // PostgreSQL only honours the fetch size inside a transaction
+    public void streamEnrolledForExport(Long competitionId, Consumer<EnrollmentExportRow> consumer) {
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(SELECT_ENROLLED);
+            statement.setFetchSize(FETCH_SIZE);
+            statement.setLong(1, competitionId);
+            return statement;
+        }, rs -> {
+            Timestamp enrolledAt = rs.getTimestamp(5);
+            consumer.accept(new EnrollmentExportRow(
+                rs.getLong(1),
+                rs.getString(2),
+                rs.getString(3),
+                rs.getString(4),
+                enrolledAt != null ? enrolledAt.toLocalDateTime() : null,
+                rs.getString(6)));
+        });
+    }
+}
@@ -4,14 +4,18 @@ import com.smartuniversity.model.CompetitionEnrollment;
 import com.smartuniversity.model.CompetitionEnrollment.EnrollmentStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CompetitionEnrollmentRepository extends JpaRepository<CompetitionEnrollment, Long> {
+public interface CompetitionEnrollmentRepository extends JpaRepository<CompetitionEnrollment, Long>, CompetitionEnrollmentExportRepository {
 
     // Find all enrollments for a competition
     List<CompetitionEnrollment> findByCompetitionIdAndStatusOrderByEnrolledAtAsc(Long competitionId, EnrollmentStatus status);
@@ -22,12 +26,34 @@ public interface CompetitionEnrollmentRepository extends JpaRepository<Competiti
     // Count active enrollments for a competition
     Long countByCompetitionIdAndStatus(Long competitionId, EnrollmentStatus status);
 
+    // Count enrollments for many competitions at once: rows of [competitionId, count]
+    @Query("SELECT e.competitionId, COUNT(e) FROM CompetitionEnrollment e " +
+           "WHERE e.competitionId IN :competitionIds AND e.status = :status GROUP BY e.competitionId")
+    List<Object[]> countByCompetitionIdsAndStatus(@Param("competitionIds") Collection<Long> competitionIds,
+                                                  @Param("status") EnrollmentStatus status);
+
     // Find all enrollments for a user
     List<CompetitionEnrollment> findByUserIdAndStatusOrderByEnrolledAtDesc(Long userId, EnrollmentStatus status);
 
     // Check if user is enrolled in a competition
     boolean existsByCompetitionIdAndUserIdAndStatus(Long competitionId, Long userId, EnrollmentStatus status);
 
+    // Withdraw only if still enrolled (1 = withdrawn, 0 = already withdrawn by a concurrent request)
+    @Modifying
+    @Transactional
+    @Query("UPDATE CompetitionEnrollment e SET e.status = :withdrawn, e.withdrawnAt = :now " +
+           "WHERE e.id = :id AND e.status = :enrolled")
+    int withdraw(@Param("id") Long id, @Param("now") LocalDateTime now,
+                 @Param("enrolled") EnrollmentStatus enrolled, @Param("withdrawn") EnrollmentStatus withdrawn);
+
+    // Re-enroll a withdrawn row (1 = re-enrolled, 0 = already re-enrolled by a concurrent request)
+    @Modifying
+    @Transactional
+    @Query("UPDATE CompetitionEnrollment e SET e.status = :enrolled, e.withdrawnAt = NULL, " +
+           "e.formResponses = :formResponses WHERE e.id = :id AND e.status = :withdrawn")
+    int reenroll(@Param("id") Long id, @Param("formResponses") String formResponses,
+                 @Param("enrolled") EnrollmentStatus enrolled, @Param("withdrawn") EnrollmentStatus withdrawn);
+
     // Delete all enrollments for a competition
     @Modifying
     @Transactional
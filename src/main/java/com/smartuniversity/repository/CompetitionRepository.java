@@ -2,11 +2,18 @@ package com.smartuniversity.repository;
 
 import com.smartuniversity.model.Competition;
 import com.smartuniversity.model.Competition.ApprovalStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CompetitionRepository extends JpaRepository<Competition, Long> {
@@ -31,4 +38,24 @@ public interface CompetitionRepository extends JpaRepository<Competition, Long>
 
     // Find approved competitions by category
     List<Competition> findByStatusAndCategoryOrderByStartDateAsc(ApprovalStatus status, String category);
+
+    // Load a competition holding its row lock (serializes with enroll/withdraw until the transaction ends)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Competition c WHERE c.id = :id")
+    Optional<Competition> findByIdForUpdate(@Param("id") Long id);
+
+    // Claim an enrollment slot: increments enrolledCount only while the competition is below
+    // maxParticipants. Returns 1 if a slot was taken, 0 if full. The row lock taken here serializes
+    // concurrent enrollments for the same competition until the surrounding transaction commits.
+    @Modifying
+    @Transactional
+    @Query("UPDATE Competition c SET c.enrolledCount = c.enrolledCount + 1 WHERE c.id = :competitionId " +
+           "AND (c.maxParticipants IS NULL OR c.enrolledCount < c.maxParticipants)")
+    int claimEnrollmentSlot(@Param("competitionId") Long competitionId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Competition c SET c.enrolledCount = c.enrolledCount - 1 " +
+           "WHERE c.id = :competitionId AND c.enrolledCount > 0")
+    int releaseEnrollmentSlot(@Param("competitionId") Long competitionId);
 }
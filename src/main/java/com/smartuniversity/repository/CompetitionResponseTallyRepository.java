@@ -0,0 +1,38 @@
+package com.smartuniversity.repository;
+
+import com.smartuniversity.model.CompetitionEnrollment.EnrollmentStatus;
+import com.smartuniversity.model.CompetitionResponseTally;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface CompetitionResponseTallyRepository extends JpaRepository<CompetitionResponseTally, Long> {
+
+    // Non-zero tallies for a competition
+    @Query("SELECT t FROM CompetitionResponseTally t WHERE t.competitionId = :competitionId AND t.answerCount > 0")
+    List<CompetitionResponseTally> findActiveByCompetitionId(@Param("competitionId") Long competitionId);
+
+    // Add delta to one answer's tally; returns 0 if the row does not exist yet
+    @Modifying
+    @Transactional
+    @Query("UPDATE CompetitionResponseTally t SET t.answerCount = t.answerCount + :delta " +
+           "WHERE t.competitionId = :competitionId AND t.fieldLabel = :fieldLabel AND t.answerValue = :answerValue")
+    int adjustCount(@Param("competitionId") Long competitionId, @Param("fieldLabel") String fieldLabel,
+                    @Param("answerValue") String answerValue, @Param("delta") int delta);
+
+    // Competitions with active enrollments but no tallies yet (created before tallies existed)
+    @Query("SELECT DISTINCT e.competitionId FROM CompetitionEnrollment e WHERE e.status = :status " +
+           "AND NOT EXISTS (SELECT 1 FROM CompetitionResponseTally t WHERE t.competitionId = e.competitionId)")
+    List<Long> findCompetitionIdsWithoutTallies(@Param("status") EnrollmentStatus status);
+
+    // Delete all tallies for a competition
+    @Modifying
+    @Transactional
+    void deleteByCompetitionId(Long competitionId);
+}
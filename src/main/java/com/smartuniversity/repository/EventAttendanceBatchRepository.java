@@ -0,0 +1,38 @@
+package com.smartuniversity.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JDBC-batched attendance writes, mixed into {@link EventAttendanceRepository}.
+ */
+public interface EventAttendanceBatchRepository {
+
+    /**
+     * A check-in captured by a door device, possibly while offline
+     */
+    record SyncedCheckIn(Long userId, String syncKey, LocalDateTime checkedInAt, String notes) {}
+
+    /**
+     * Insert attendance rows for many users of one event in a single JDBC batch.
+     * Users that already have a row for the event are skipped (ON CONFLICT DO NOTHING).
+     *
+     * @return ids of the users whose attendance was actually inserted
+     */
+    List<Long> batchInsertAttendance(Long eventId, Collection<Long> userIds, Long checkedInBy,
+                                     LocalDateTime checkedInAt, String notes);
+
+    /**
+     * Insert synced check-ins in one JDBC batch, skipping rows that conflict on
+     * (event_id, user_id) or on sync_key.
+     *
+     * @return per-row flags, true where the row was inserted
+     */
+    boolean[] batchInsertSyncedAttendance(Long eventId, List<SyncedCheckIn> checkIns, Long checkedInBy);
+
+    /**
+     * Move existing check-ins back to the synced scan time when it is earlier (earliest scan wins)
+     */
+    void batchMergeEarliestCheckIn(Long eventId, List<SyncedCheckIn> checkIns);
+}
@@ -0,0 +1,103 @@
+package com.smartuniversity.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class EventAttendanceBatchRepositoryImpl implements EventAttendanceBatchRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_ATTENDANCE =
+        "INSERT INTO event_attendance (event_id, user_id, checked_in_at, checked_in_by, notes, created_at, sync_key) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING";
+
+    private static final String MERGE_EARLIEST_CHECK_IN =
+        "UPDATE event_attendance SET checked_in_at = ? WHERE event_id = ? AND user_id = ? AND checked_in_at > ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public List<Long> batchInsertAttendance(Long eventId, Collection<Long> userIds, Long checkedInBy,
+                                            LocalDateTime checkedInAt, String notes) {
+        List<Long> ids = new ArrayList<>(userIds);
+        Timestamp checkedIn = Timestamp.valueOf(checkedInAt);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        boolean[] inserted = toInsertedFlags(jdbcTemplate.batchUpdate(INSERT_ATTENDANCE, ids, BATCH_SIZE,
+            (ps, userId) -> bindInsert(ps, eventId, userId, checkedIn, checkedInBy, notes, now, null)));
+
+        List<Long> insertedIds = new ArrayList<>();
+        for (int i = 0; i < inserted.length; i++) {
+            if (inserted[i]) {
+                insertedIds.add(ids.get(i));
+            }
+        }
+        return insertedIds;
+    }
+
+    @Override
+    @Transactional
+    public boolean[] batchInsertSyncedAttendance(Long eventId, List<SyncedCheckIn> checkIns, Long checkedInBy) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return toInsertedFlags(jdbcTemplate.batchUpdate(INSERT_ATTENDANCE, checkIns, BATCH_SIZE,
+            (ps, checkIn) -> bindInsert(ps, eventId, checkIn.userId(), Timestamp.valueOf(checkIn.checkedInAt()),
+                checkedInBy, checkIn.notes(), now, checkIn.syncKey())));
+    }
+
+    @Override
+    @Transactional
+    public void batchMergeEarliestCheckIn(Long eventId, List<SyncedCheckIn> checkIns) {
+        jdbcTemplate.batchUpdate(MERGE_EARLIEST_CHECK_IN, checkIns, BATCH_SIZE, (ps, checkIn) -> {
+            Timestamp scannedAt = Timestamp.valueOf(checkIn.checkedInAt());
+            ps.setTimestamp(1, scannedAt);
+            ps.setLong(2, eventId);
+            ps.setLong(3, checkIn.userId());
+            ps.setTimestamp(4, scannedAt);
+        });
+    }
+
+    private static void bindInsert(PreparedStatement ps, Long eventId, Long userId, Timestamp checkedInAt,
+                                   Long checkedInBy, String notes, Timestamp createdAt, String syncKey) throws SQLException {
+        ps.setLong(1, eventId);
+        ps.setLong(2, userId);
+        ps.setTimestamp(3, checkedInAt);
+        if (checkedInBy != null) {
+            ps.setLong(4, checkedInBy);
+        } else {
+            ps.setNull(4, Types.BIGINT);
+        }
+        ps.setString(5, notes);
+        ps.setTimestamp(6, createdAt);
+        ps.setString(7, syncKey);
+    }
+
+    /**
+     * Flatten per-batch row counts; 0 means the conflict clause skipped the row
+     */
+    private static boolean[] toInsertedFlags(int[][] results) {
+        int total = 0;
+        for (int[] batch : results) {
+            total += batch.length;
+        }
+        boolean[] inserted = new boolean[total];
+        int index = 0;
+        for (int[] batch : results) {
+            for (int count : batch) {
+                inserted[index++] = count != 0;
+            }
+        }
+        return inserted;
+    }
+}
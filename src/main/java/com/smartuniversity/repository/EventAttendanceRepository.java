@@ -8,11 +8,12 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface EventAttendanceRepository extends JpaRepository<EventAttendance, Long> {
+public interface EventAttendanceRepository extends JpaRepository<EventAttendance, Long>, EventAttendanceBatchRepository {
 
     // Find attendance by event and user
     Optional<EventAttendance> findByEventIdAndUserId(Long eventId, Long userId);
@@ -26,6 +27,14 @@ public interface EventAttendanceRepository extends JpaRepository<EventAttendance
     // Check if user attended an event
     boolean existsByEventIdAndUserId(Long eventId, Long userId);
 
+    // Which of the given users already checked in to an event
+    @Query("SELECT a.user.id FROM EventAttendance a WHERE a.event.id = :eventId AND a.user.id IN :userIds")
+    List<Long> findCheckedInUserIds(@Param("eventId") Long eventId, @Param("userIds") Collection<Long> userIds);
+
+    // Which of the given sync keys were already applied to an event
+    @Query("SELECT a.syncKey FROM EventAttendance a WHERE a.event.id = :eventId AND a.syncKey IN :syncKeys")
+    List<String> findExistingSyncKeys(@Param("eventId") Long eventId, @Param("syncKeys") Collection<String> syncKeys);
+
     // Count attendance for an event
     long countByEventId(Long eventId);
 
@@ -33,8 +42,15 @@ public interface EventAttendanceRepository extends JpaRepository<EventAttendance
     @Query("SELECT COUNT(ea) FROM EventAttendance ea WHERE ea.event.id = :eventId")
     long getAttendanceCount(@Param("eventId") Long eventId);
 
-    // Delete attendance by event and user
-    void deleteByEventIdAndUserId(Long eventId, Long userId);
+    // Attendance counts for many events at once: rows of [eventId, count]
+    @Query("SELECT a.event.id, COUNT(a) FROM EventAttendance a WHERE a.event.id IN :eventIds GROUP BY a.event.id")
+    List<Object[]> countByEventIds(@Param("eventIds") Collection<Long> eventIds);
+
+    // Delete attendance by event and user; returns the number of rows removed
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM EventAttendance a WHERE a.event.id = :eventId AND a.user.id = :userId")
+    int deleteByEventIdAndUserId(@Param("eventId") Long eventId, @Param("userId") Long userId);
 
     // Delete all attendance for an event (bulk DELETE, not N+1)
     @Modifying
@@ -1,6 +1,8 @@
 package com.smartuniversity.repository;
 
+import com.smartuniversity.dto.CommentRow;
 import com.smartuniversity.model.EventComment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -8,11 +10,16 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface EventCommentRepository extends JpaRepository<EventComment, Long> {
 
+    String SELECT_COMMENT_ROW = "SELECT new com.smartuniversity.dto.CommentRow(" +
+        "c.id, c.parentId, c.userId, c.comment, c.createdAt, c.updatedAt, c.isDeleted) FROM EventComment c ";
+
     // Find all comments for an event (excluding deleted)
     List<EventComment> findByEventIdAndIsDeletedOrderByCreatedAtDesc(Long eventId, Boolean isDeleted);
 
@@ -27,4 +34,28 @@ public interface EventCommentRepository extends JpaRepository<EventComment, Long
     @Transactional
     @Query("DELETE FROM EventComment c WHERE c.eventId = :eventId")
     void deleteByEventId(@Param("eventId") Long eventId);
+
+    // Keyset pages of top-level comments ordered by (createdAt, id) descending, strictly before the cursor
+    // Deleted comments stay in as placeholders while they still have visible replies
+    @Query(SELECT_COMMENT_ROW + "WHERE c.eventId = :eventId AND c.parentId IS NULL AND (c.isDeleted = false " +
+           "OR EXISTS (SELECT r.id FROM EventComment r WHERE r.parentId = c.id AND r.isDeleted = false)) " +
+           "AND (c.createdAt < :beforeDate OR (c.createdAt = :beforeDate AND c.id < :beforeId)) " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<CommentRow> findTopLevelBefore(@Param("eventId") Long eventId,
+                                        @Param("beforeDate") LocalDateTime beforeDate,
+                                        @Param("beforeId") Long beforeId,
+                                        Pageable pageable);
+
+    // Keyset pages of replies to one comment ordered by (createdAt, id), strictly after the cursor
+    @Query(SELECT_COMMENT_ROW + "WHERE c.parentId = :parentId AND c.isDeleted = false " +
+           "AND (c.createdAt > :afterDate OR (c.createdAt = :afterDate AND c.id > :afterId)) " +
+           "ORDER BY c.createdAt ASC, c.id ASC")
+    List<CommentRow> findRepliesAfter(@Param("parentId") Long parentId,
+                                      @Param("afterDate") LocalDateTime afterDate,
+                                      @Param("afterId") Long afterId,
+                                      Pageable pageable);
+
+    // Visible reply counts for a page of top-level comments, as [parentId, count] rows
+    @Query("SELECT c.parentId, COUNT(c) FROM EventComment c WHERE c.parentId IN :parentIds AND c.isDeleted = false GROUP BY c.parentId")
+    List<Object[]> countRepliesByParentIds(@Param("parentIds") Collection<Long> parentIds);
 }
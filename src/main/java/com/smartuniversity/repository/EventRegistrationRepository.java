@@ -9,6 +9,8 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,6 +26,18 @@ public interface EventRegistrationRepository extends JpaRepository<EventRegistra
     // Count registrations by status
     long countByEventIdAndStatus(Long eventId, RegistrationStatus status);
 
+    // Count registrations for many events at once: rows of [eventId, status, count]
+    @Query("SELECT r.eventId, r.status, COUNT(r) FROM EventRegistration r " +
+           "WHERE r.eventId IN :eventIds AND r.status IN :statuses GROUP BY r.eventId, r.status")
+    List<Object[]> countByEventIdsAndStatuses(@Param("eventIds") Collection<Long> eventIds,
+                                              @Param("statuses") Collection<RegistrationStatus> statuses);
+
+    // Which of the given users hold a registration with the given status
+    @Query("SELECT r.userId FROM EventRegistration r WHERE r.eventId = :eventId AND r.status = :status AND r.userId IN :userIds")
+    List<Long> findUserIdsByEventIdAndStatus(@Param("eventId") Long eventId,
+                                             @Param("status") RegistrationStatus status,
+                                             @Param("userIds") Collection<Long> userIds);
+
     // Find all user registrations
     List<EventRegistration> findByUserIdAndStatusOrderByRegisteredAtDesc(Long userId, RegistrationStatus status);
 
@@ -33,8 +47,25 @@ public interface EventRegistrationRepository extends JpaRepository<EventRegistra
     // Find all registrations for an event (any status)
     List<EventRegistration> findByEventIdOrderByRegisteredAtAsc(Long eventId);
 
-    // Find waitlisted users
-    List<EventRegistration> findByEventIdAndStatusOrderByMovedToWaitlistAtAsc(Long eventId, RegistrationStatus status);
+    // Head of the waitlist (lowest waitlist sequence)
+    Optional<EventRegistration> findFirstByEventIdAndStatusOrderByWaitlistSequenceAsc(Long eventId, RegistrationStatus status);
+
+    // Live 1-based waitlist position: waitlisted entries at or ahead of the given sequence
+    @Query("SELECT COUNT(r) FROM EventRegistration r WHERE r.eventId = :eventId " +
+           "AND r.status = :status AND r.waitlistSequence <= :waitlistSequence")
+    long countWaitlistPosition(@Param("eventId") Long eventId,
+                               @Param("status") RegistrationStatus status,
+                               @Param("waitlistSequence") Long waitlistSequence);
+
+    // Promote one waitlisted registration; returns 0 if it is no longer waitlisted
+    @Modifying
+    @Transactional
+    @Query("UPDATE EventRegistration r SET r.status = :registered, r.movedFromWaitlistAt = :now, " +
+           "r.waitlistPosition = NULL WHERE r.id = :id AND r.status = :waitlisted")
+    int promoteFromWaitlist(@Param("id") Long id,
+                            @Param("now") LocalDateTime now,
+                            @Param("registered") RegistrationStatus registered,
+                            @Param("waitlisted") RegistrationStatus waitlisted);
 
     // Delete all registrations for an event (bulk DELETE, not N+1)
     @Modifying
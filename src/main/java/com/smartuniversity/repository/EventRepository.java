@@ -1,16 +1,40 @@
 package com.smartuniversity.repository;
 
+import com.smartuniversity.dto.AttendanceStatsResponse;
+import com.smartuniversity.dto.EventResponse;
+import com.smartuniversity.dto.EventSummary;
 import com.smartuniversity.model.Event;
 import com.smartuniversity.model.Event.ApprovalStatus;
+import com.smartuniversity.model.EventRegistration.RegistrationStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface EventRepository extends JpaRepository<Event, Long> {
 
+    // Constructor projections for the listing endpoints (no entity hydration)
+    String SELECT_EVENT_RESPONSE = "SELECT new com.smartuniversity.dto.EventResponse(" +
+        "e.id, e.title, e.description, e.imageUrl, e.eventDate, e.eventTime, e.endTime, e.registrationDeadline, " +
+        "e.category, e.location, e.organizerName, e.maxAttendees, e.status, e.creatorId, e.createdAt, " +
+        "e.rejectionReason, e.isRecurring, e.recurrencePattern, e.registeredCount, e.waitlistCount) FROM Event e ";
+
+    String SELECT_EVENT_SUMMARY = "SELECT new com.smartuniversity.dto.EventSummary(" +
+        "e.id, e.title, e.imageUrl, e.eventDate, e.eventTime, e.endTime, e.registrationDeadline, " +
+        "e.category, e.location, e.organizerName, e.maxAttendees, e.registeredCount, e.waitlistCount) FROM Event e ";
+
+    String VISIBLE = "(e.hidden IS NULL OR e.hidden = false)";
+
     // Find all approved events
     List<Event> findByStatusOrderByEventDateDesc(ApprovalStatus status);
 
@@ -41,4 +65,110 @@ public interface EventRepository extends JpaRepository<Event, Long> {
 
     // Find all approved events not hidden
     List<Event> findByStatusAndHiddenOrderByEventDateAsc(ApprovalStatus status, Boolean hidden);
+
+    // Visible events as response DTOs
+    @Query(SELECT_EVENT_RESPONSE + "WHERE e.status = :status AND " + VISIBLE + " ORDER BY e.eventDate ASC")
+    List<EventResponse> findVisibleResponses(@Param("status") ApprovalStatus status);
+
+    @Query(SELECT_EVENT_RESPONSE + "WHERE e.status = :status AND " + VISIBLE +
+           " AND e.eventDate > :now ORDER BY e.eventDate ASC")
+    List<EventResponse> findVisibleResponsesAfter(@Param("status") ApprovalStatus status, @Param("now") LocalDateTime now);
+
+    @Query(SELECT_EVENT_RESPONSE + "WHERE e.status = :status AND " + VISIBLE +
+           " AND e.eventDate < :now ORDER BY e.eventDate DESC")
+    List<EventResponse> findVisibleResponsesBefore(@Param("status") ApprovalStatus status, @Param("now") LocalDateTime now);
+
+    @Query(SELECT_EVENT_RESPONSE + "WHERE e.status = :status AND " + VISIBLE +
+           " AND e.category = :category ORDER BY e.eventDate ASC")
+    List<EventResponse> findVisibleResponsesByCategory(@Param("status") ApprovalStatus status, @Param("category") String category);
+
+    // Keyset pages of visible events ordered by (eventDate, id), strictly after the cursor
+    @Query(SELECT_EVENT_SUMMARY + "WHERE e.status = :status AND " + VISIBLE +
+           " AND (e.eventDate > :afterDate OR (e.eventDate = :afterDate AND e.id > :afterId)) " +
+           "ORDER BY e.eventDate ASC, e.id ASC")
+    List<EventSummary> findVisibleAfter(@Param("status") ApprovalStatus status,
+                                        @Param("afterDate") LocalDateTime afterDate,
+                                        @Param("afterId") Long afterId,
+                                        Pageable pageable);
+
+    @Query(SELECT_EVENT_SUMMARY + "WHERE e.status = :status AND e.category = :category AND " + VISIBLE +
+           " AND (e.eventDate > :afterDate OR (e.eventDate = :afterDate AND e.id > :afterId)) " +
+           "ORDER BY e.eventDate ASC, e.id ASC")
+    List<EventSummary> findVisibleByCategoryAfter(@Param("status") ApprovalStatus status,
+                                                  @Param("category") String category,
+                                                  @Param("afterDate") LocalDateTime afterDate,
+                                                  @Param("afterId") Long afterId,
+                                                  Pageable pageable);
+
+    // Keyset pages of visible events ordered by (eventDate, id) descending, strictly before the cursor
+    @Query(SELECT_EVENT_SUMMARY + "WHERE e.status = :status AND " + VISIBLE +
+           " AND (e.eventDate < :beforeDate OR (e.eventDate = :beforeDate AND e.id < :beforeId)) " +
+           "ORDER BY e.eventDate DESC, e.id DESC")
+    List<EventSummary> findVisibleBefore(@Param("status") ApprovalStatus status,
+                                         @Param("beforeDate") LocalDateTime beforeDate,
+                                         @Param("beforeId") Long beforeId,
+                                         Pageable pageable);
+
+    // Atomically adjust the denormalized registration counters (single-statement, no read-modify-write)
+    @Modifying
+    @Transactional
+    @Query("UPDATE Event e SET e.registeredCount = COALESCE(e.registeredCount, 0) + :delta WHERE e.id = :eventId")
+    int adjustRegisteredCount(@Param("eventId") Long eventId, @Param("delta") int delta);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Event e SET e.waitlistCount = COALESCE(e.waitlistCount, 0) + :delta WHERE e.id = :eventId")
+    int adjustWaitlistCount(@Param("eventId") Long eventId, @Param("delta") int delta);
+
+    // Claim a seat: increments registeredCount only while the event is below capacity.
+    // Returns 1 if a seat was taken, 0 if the event is full. The row lock taken here serializes
+    // concurrent registrations for the same event until the surrounding transaction commits.
+    @Modifying
+    @Transactional
+    @Query("UPDATE Event e SET e.registeredCount = e.registeredCount + 1 WHERE e.id = :eventId " +
+           "AND (e.maxAttendees IS NULL OR e.registeredCount < e.maxAttendees)")
+    int claimSeat(@Param("eventId") Long eventId);
+
+    // Join the waitlist: bumps the waitlist counter and hands out the next waitlist sequence
+    @Modifying
+    @Transactional
+    @Query("UPDATE Event e SET e.waitlistCount = e.waitlistCount + 1, " +
+           "e.waitlistSequence = e.waitlistSequence + 1 WHERE e.id = :eventId")
+    int enqueueWaitlist(@Param("eventId") Long eventId);
+
+    // Waitlist counters as last written: rows of [waitlistCount, waitlistSequence]
+    @Query("SELECT e.waitlistCount, e.waitlistSequence FROM Event e WHERE e.id = :eventId")
+    List<Object[]> findWaitlistCounters(@Param("eventId") Long eventId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Event e SET e.attendedCount = COALESCE(e.attendedCount, 0) + :delta WHERE e.id = :eventId")
+    int adjustAttendedCount(@Param("eventId") Long eventId, @Param("delta") int delta);
+
+    // Attendance totals straight from the event's counters (single query)
+    @Query("SELECT new com.smartuniversity.dto.AttendanceStatsResponse(e.id, e.title, e.registeredCount, " +
+           "e.attendedCount, e.waitlistCount) FROM Event e WHERE e.id = :eventId")
+    Optional<AttendanceStatsResponse> findAttendanceStats(@Param("eventId") Long eventId);
+
+    // Current counter values: rows of [eventId, registeredCount, waitlistCount, attendedCount]
+    @Query("SELECT e.id, e.registeredCount, e.waitlistCount, e.attendedCount FROM Event e WHERE e.id > :afterId ORDER BY e.id")
+    List<Object[]> findRegistrationCounters(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Take the event row lock that claimSeat and the counter updates contend on, held until the transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Event e WHERE e.id = :id")
+    Optional<Event> findByIdForUpdate(@Param("id") Long id);
+
+    // Recompute an event's counters from the registrations and attendance tables in one statement.
+    // Only call while holding the row lock (findByIdForUpdate): otherwise the subquery counts come
+    // from this statement's snapshot and overwrite registrations committed concurrently.
+    @Modifying
+    @Query("UPDATE Event e SET " +
+           "e.registeredCount = (SELECT COUNT(r) FROM EventRegistration r WHERE r.eventId = e.id AND r.status = :registered), " +
+           "e.waitlistCount = (SELECT COUNT(r) FROM EventRegistration r WHERE r.eventId = e.id AND r.status = :waitlisted), " +
+           "e.attendedCount = (SELECT COUNT(a) FROM EventAttendance a WHERE a.event.id = e.id) " +
+           "WHERE e.id = :eventId")
+    int recomputeRegistrationCounters(@Param("eventId") Long eventId,
+                                      @Param("registered") RegistrationStatus registered,
+                                      @Param("waitlisted") RegistrationStatus waitlisted);
 }
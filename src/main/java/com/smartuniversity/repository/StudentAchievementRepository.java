@@ -1,8 +1,12 @@
 package com.smartuniversity.repository;
 
+import com.smartuniversity.dto.AchievementSummary;
 import com.smartuniversity.model.StudentAchievement;
 import com.smartuniversity.model.StudentAchievement.ApprovalStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -11,6 +15,14 @@ import java.util.List;
 @Repository
 public interface StudentAchievementRepository extends JpaRepository<StudentAchievement, Long> {
 
+    String SELECT_ACHIEVEMENT_SUMMARY = "SELECT new com.smartuniversity.dto.AchievementSummary(" +
+        "a.id, a.title, a.category, a.imageUrl, a.achievementDate, a.createdAt, a.status, a.studentId, " +
+        "u.firstName, u.lastName, u.imageUrl, a.likes, a.comments, a.shares) " +
+        "FROM StudentAchievement a LEFT JOIN User u ON u.id = a.studentId ";
+
+    String BEFORE_CURSOR = " AND (a.createdAt < :beforeDate OR (a.createdAt = :beforeDate AND a.id < :beforeId)) " +
+        "ORDER BY a.createdAt DESC, a.id DESC";
+
     // Find all approved achievements
     List<StudentAchievement> findByStatusOrderByCreatedAtDesc(ApprovalStatus status);
 
@@ -37,9 +49,26 @@ public interface StudentAchievementRepository extends JpaRepository<StudentAchie
     // Find pending achievements (for admin)
     List<StudentAchievement> findByStatusOrderByCreatedAtAsc(ApprovalStatus status);
 
-    // Find recent approved achievements (for feed)
-    List<StudentAchievement> findTop10ByStatusAndHiddenOrderByCreatedAtDesc(ApprovalStatus status, Boolean hidden);
+    // Find newest approved achievements (candidates for the discover feeds)
+    List<StudentAchievement> findByStatusAndHiddenOrderByCreatedAtDesc(ApprovalStatus status, Boolean hidden, Pageable pageable);
+
+    // Keyset pages ordered by (createdAt, id) descending, strictly before the cursor
+    @Query(SELECT_ACHIEVEMENT_SUMMARY + "WHERE a.status = :status AND a.hidden = false" + BEFORE_CURSOR)
+    List<AchievementSummary> findVisibleBefore(@Param("status") ApprovalStatus status,
+                                               @Param("beforeDate") LocalDateTime beforeDate,
+                                               @Param("beforeId") Long beforeId,
+                                               Pageable pageable);
+
+    @Query(SELECT_ACHIEVEMENT_SUMMARY + "WHERE a.status = :status AND a.category = :category AND a.hidden = false" + BEFORE_CURSOR)
+    List<AchievementSummary> findVisibleByCategoryBefore(@Param("status") ApprovalStatus status,
+                                                         @Param("category") String category,
+                                                         @Param("beforeDate") LocalDateTime beforeDate,
+                                                         @Param("beforeId") Long beforeId,
+                                                         Pageable pageable);
 
-    // Find popular achievements (by likes)
-    List<StudentAchievement> findTop10ByStatusAndHiddenOrderByLikesDesc(ApprovalStatus status, Boolean hidden);
+    @Query(SELECT_ACHIEVEMENT_SUMMARY + "WHERE a.studentId = :studentId" + BEFORE_CURSOR)
+    List<AchievementSummary> findByStudentBefore(@Param("studentId") Long studentId,
+                                                 @Param("beforeDate") LocalDateTime beforeDate,
+                                                 @Param("beforeId") Long beforeId,
+                                                 Pageable pageable);
 }
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,6 +28,10 @@ public interface UserRatingRepository extends JpaRepository<UserRating, Long> {
     @Query("SELECT AVG(r.rating) FROM UserRating r WHERE r.ratedUserId = :userId")
     Double getAverageRatingForUser(@Param("userId") Long userId);
 
+    // Average rating per user for a set of users (one grouped query), as [ratedUserId, average] rows
+    @Query("SELECT r.ratedUserId, AVG(r.rating) FROM UserRating r WHERE r.ratedUserId IN :userIds GROUP BY r.ratedUserId")
+    List<Object[]> getAverageRatingsForUsers(@Param("userIds") Collection<Long> userIds);
+
     // Count total ratings received by a user
     Long countByRatedUserId(Long ratedUserId);
 }
@@ -0,0 +1,44 @@
+package com.smartuniversity.scheduler;
+
+import com.smartuniversity.model.CompetitionEnrollment.EnrollmentStatus;
+import com.smartuniversity.repository.CompetitionResponseTallyRepository;
+import com.smartuniversity.service.CompetitionFormCache;
+import com.smartuniversity.service.CompetitionResponseTallyService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CompetitionResponseTallyBackfill {
+
+    @Autowired
+    private CompetitionResponseTallyRepository tallyRepository;
+
+    @Autowired
+    private CompetitionResponseTallyService tallyService;
+
+    @Autowired
+    private CompetitionFormCache formCache;
+
+    /**
+     * Build tallies for competitions that had enrollments before tallies were introduced
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        try {
+            int rebuilt = 0;
+            for (Long competitionId : tallyRepository.findCompetitionIdsWithoutTallies(EnrollmentStatus.ENROLLED)) {
+                if (formCache.getForm(competitionId).hasTalliedFields()) {
+                    tallyService.rebuild(competitionId);
+                    rebuilt++;
+                }
+            }
+            if (rebuilt > 0) {
+                System.out.println("Competition response tallies backfilled for " + rebuilt + " competitions");
+            }
+        } catch (Exception e) {
+            System.err.println("Error backfilling competition response tallies: " + e.getMessage());
+        }
+    }
+}
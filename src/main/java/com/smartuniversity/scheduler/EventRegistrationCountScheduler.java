@@ -0,0 +1,105 @@
+package com.smartuniversity.scheduler;
+
+import com.smartuniversity.model.EventRegistration.RegistrationStatus;
+import com.smartuniversity.repository.EventAttendanceRepository;
+import com.smartuniversity.repository.EventRegistrationRepository;
+import com.smartuniversity.repository.EventRepository;
+import com.smartuniversity.service.EventCounterService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class EventRegistrationCountScheduler {
+
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventRegistrationRepository registrationRepository;
+
+    @Autowired
+    private EventAttendanceRepository attendanceRepository;
+
+    @Autowired
+    private EventCounterService eventCounterService;
+
+    /**
+     * Backfill counters right after startup (covers freshly added columns)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        reconcileRegistrationCounts();
+    }
+
+    /**
+     * Repair drift between the Event counters (registered/waitlist/attended) and the registrations
+     * and attendance tables
+     * Runs every 30 minutes
+     */
+    @Scheduled(cron = "0 */30 * * * *")
+    public void reconcileRegistrationCounts() {
+        try {
+            long afterId = 0L;
+            int repaired = 0;
+
+            while (true) {
+                List<Object[]> counters = eventRepository.findRegistrationCounters(afterId, PageRequest.of(0, BATCH_SIZE));
+                if (counters.isEmpty()) {
+                    break;
+                }
+
+                List<Long> eventIds = new ArrayList<>();
+                for (Object[] row : counters) {
+                    eventIds.add((Long) row[0]);
+                }
+
+                // Actual counts: eventId -> [registered, waitlisted, attended]
+                Map<Long, long[]> actual = new HashMap<>();
+                for (Object[] row : registrationRepository.countByEventIdsAndStatuses(
+                        eventIds, List.of(RegistrationStatus.REGISTERED, RegistrationStatus.WAITLISTED))) {
+                    long[] counts = actual.computeIfAbsent((Long) row[0], id -> new long[3]);
+                    counts[row[1] == RegistrationStatus.REGISTERED ? 0 : 1] = ((Number) row[2]).longValue();
+                }
+                for (Object[] row : attendanceRepository.countByEventIds(eventIds)) {
+                    actual.computeIfAbsent((Long) row[0], id -> new long[3])[2] = ((Number) row[1]).longValue();
+                }
+
+                List<Long> drifted = new ArrayList<>();
+                for (Object[] row : counters) {
+                    long[] counts = actual.getOrDefault((Long) row[0], new long[3]);
+                    long registered = row[1] != null ? ((Number) row[1]).longValue() : -1;
+                    long waitlisted = row[2] != null ? ((Number) row[2]).longValue() : -1;
+                    long attended = row[3] != null ? ((Number) row[3]).longValue() : -1;
+                    if (registered != counts[0] || waitlisted != counts[1] || attended != counts[2]) {
+                        drifted.add((Long) row[0]);
+                    }
+                }
+
+                // The reads above are unlocked and may just be racing a registration; the repair
+                // recounts under the event row lock
+                for (Long eventId : drifted) {
+                    repaired += eventCounterService.repairCounters(eventId);
+                }
+
+                afterId = eventIds.get(eventIds.size() - 1);
+            }
+
+            if (repaired > 0) {
+                System.out.println("Event registration/attendance counters reconciled: repaired " + repaired + " events");
+            }
+        } catch (Exception e) {
+            System.err.println("Error reconciling event registration counters: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.smartuniversity.security;
+
+import com.smartuniversity.model.User;
+import com.smartuniversity.service.UserPrincipal;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+/**
+ * The caller resolved for the current HTTP request.
+ *
+ * Populated once by {@link JwtAuthenticationFilter} after the token signature has been
+ * verified, and read by AuthUtils so controllers never re-parse the JWT or re-query the
+ * user. Also counts how many JWT signature verifications the request performed.
+ */
+@Component
+@RequestScope
+public class CurrentUserContext {
+
+    private String token;
+    private Long userId;
+    private String username;
+    private User.UserRole role;
+    private boolean enabled;
+    private int signatureVerifications;
+
+    /**
+     * Record the caller resolved from a verified, current token and the role it carries
+     */
+    public void populate(String token, UserPrincipal principal, User.UserRole role) {
+        this.token = token;
+        this.userId = principal.getId();
+        this.username = principal.getUsername();
+        this.role = role;
+        this.enabled = principal.isEnabled();
+    }
+
+    /**
+     * Check whether this context was resolved from the given raw JWT
+     */
+    public boolean isResolvedFor(String jwt) {
+        return token != null && token.equals(jwt);
+    }
+
+    public boolean isResolved() {
+        return token != null;
+    }
+
+    public void recordSignatureVerification() {
+        signatureVerifications++;
+    }
+
+    public int getSignatureVerifications() {
+        return signatureVerifications;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public User.UserRole getRole() {
+        return role;
+    }
+
+    public boolean isAdmin() {
+        return role == User.UserRole.ADMIN;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
@@ -1,5 +1,8 @@
 package com.smartuniversity.security;
 
+import com.smartuniversity.model.User;
+import com.smartuniversity.service.UserPrincipal;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -26,6 +29,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private CurrentUserContext currentUserContext;
+
+    @Autowired
+    private JwtVerificationMetrics jwtVerificationMetrics;
+
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
         String path = request.getRequestURI();
@@ -45,23 +54,43 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = parseJwt(request);
 
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
+            Claims claims = jwt != null ? jwtUtils.parseAndValidate(jwt) : null;
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            if (claims != null) {
+                currentUserContext.recordSignatureVerification();
+                String username = claims.getSubject();
 
-                UsernamePasswordAuthenticationToken authentication =
-                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                if (userDetails instanceof UserPrincipal principal
+                        && !jwtUtils.isCurrentToken(claims, principal.getId(), principal.getTokenVersion())) {
+                    // Role/enabled changed (or the account was recreated) after this token was issued
+                    logger.warn("Rejecting stale JWT for user: " + username);
+                } else {
+                    if (userDetails instanceof UserPrincipal principal) {
+                        // The role claim is current: a role change bumps the token version checked above
+                        User.UserRole role = jwtUtils.getRoleFromClaims(claims);
+                        currentUserContext.populate(jwt, principal,
+                            role != null ? role : User.UserRole.valueOf(principal.getRole()));
+                    }
+
+                    UsernamePasswordAuthenticationToken authentication =
+                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
         } catch (Exception e) {
             logger.error("Cannot set user authentication: {}", e);
         }
 
-        filterChain.doFilter(request, response);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            jwtVerificationMetrics.record(currentUserContext.getSignatureVerifications());
+        }
     }
 
     private String parseJwt(HttpServletRequest request) {
@@ -2,6 +2,7 @@ package com.smartuniversity.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
@@ -12,47 +13,70 @@ import java.util.Date;
 
 @Component
 public class JwtUtils {
+
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
     
     @Value("${jwt.secret}")
     private String jwtSecret;
     
     @Value("${jwt.expiration}")
     private long jwtExpirationMs;
+
+    // Built once: deriving the key and building a parser per call is pure overhead on every request.
+    // JwtParser is immutable and thread-safe.
+    private Key signingKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        jwtParser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    }
     
     public String generateJwtToken(Authentication authentication) {
         User userPrincipal = (User) authentication.getPrincipal();
 
-        return Jwts.builder()
-                .setSubject((userPrincipal.getUsername()))
-                .setIssuedAt(new Date())
-                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs * 1000L))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
-                .compact();
+        return generateJwtToken(userPrincipal);
     }
 
-    // Overloaded method for OAuth users
-    public String generateJwtToken(String username) {
+    /**
+     * Issue a token carrying the user's id, role and token version, so authorization
+     * checks can be answered from the claims without loading the user.
+     */
+    public String generateJwtToken(User user) {
         return Jwts.builder()
-                .setSubject(username)
+                .setSubject(user.getUsername())
+                .claim(CLAIM_USER_ID, user.getId())
+                .claim(CLAIM_ROLE, user.getRole().name())
+                .claim(CLAIM_TOKEN_VERSION, user.getTokenVersion())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs * 1000L))
                 .signWith(getSigningKey(), SignatureAlgorithm.HS256)
                 .compact();
     }
-    
+
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return jwtParser.parseClaimsJws(token).getBody().getSubject();
     }
     
     public boolean validateJwtToken(String authToken) {
+        return parseAndValidate(authToken) != null;
+    }
+
+    /**
+     * Verify the token signature and expiry once and return its claims
+     * (subject, expiration and any custom claims).
+     *
+     * @param authToken Raw JWT (without the "Bearer " prefix)
+     * @return Parsed claims, or null if the token is invalid
+     */
+    public Claims parseAndValidate(String authToken) {
         try {
-            Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(authToken);
-            return true;
+            return jwtParser.parseClaimsJws(authToken).getBody();
+        } catch (io.jsonwebtoken.security.SecurityException e) {
+            System.err.println("Invalid JWT signature: " + e.getMessage());
         } catch (MalformedJwtException e) {
             System.err.println("Invalid JWT token: " + e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -62,10 +86,40 @@ public class JwtUtils {
         } catch (IllegalArgumentException e) {
             System.err.println("JWT claims string is empty: " + e.getMessage());
         }
-        return false;
+        return null;
     }
     
+    public Long getUserIdFromClaims(Claims claims) {
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        return userId != null ? userId.longValue() : null;
+    }
+
+    public User.UserRole getRoleFromClaims(Claims claims) {
+        String role = claims.get(CLAIM_ROLE, String.class);
+        return role != null ? User.UserRole.valueOf(role) : null;
+    }
+
+    /**
+     * Token version the token was issued with; tokens issued before versioning count as 0
+     */
+    public int getTokenVersionFromClaims(Claims claims) {
+        Number version = claims.get(CLAIM_TOKEN_VERSION, Number.class);
+        return version != null ? version.intValue() : 0;
+    }
+    
+    /**
+     * Check that a token still matches its user: same account id and the current token version
+     * (bumped when the user's role or enabled flag changes, which revokes older tokens)
+     */
+    public boolean isCurrentToken(Claims claims, Long userId, int tokenVersion) {
+        Long tokenUserId = getUserIdFromClaims(claims);
+        if (tokenUserId != null && !tokenUserId.equals(userId)) {
+            return false;
+        }
+        return getTokenVersionFromClaims(claims) == tokenVersion;
+    }
+
     private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        return signingKey;
     }
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.smartuniversity.security;
+
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Aggregates JWT signature verifications per authenticated request, so we can confirm
+ * the hot path stays at a single verification.
+ */
+@Component
+public class JwtVerificationMetrics {
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong verifications = new AtomicLong();
+    private final AtomicInteger maxPerRequest = new AtomicInteger();
+    private final AtomicInteger lastPerRequest = new AtomicInteger();
+
+    /**
+     * Record the verification count of one finished request
+     */
+    public void record(int requestVerifications) {
+        if (requestVerifications <= 0) {
+            return;
+        }
+        requests.incrementAndGet();
+        verifications.addAndGet(requestVerifications);
+        lastPerRequest.set(requestVerifications);
+        maxPerRequest.accumulateAndGet(requestVerifications, Math::max);
+    }
+
+    public Map<String, Object> snapshot() {
+        long requestCount = requests.get();
+        long verificationCount = verifications.get();
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("authenticatedRequests", requestCount);
+        stats.put("signatureVerifications", verificationCount);
+        stats.put("averagePerRequest", requestCount > 0 ? (double) verificationCount / requestCount : 0.0);
+        stats.put("maxPerRequest", maxPerRequest.get());
+        stats.put("lastPerRequest", lastPerRequest.get());
+        return stats;
+    }
+}
@@ -0,0 +1,127 @@
+package com.smartuniversity.security;
+
+import com.smartuniversity.model.User;
+import com.smartuniversity.repository.UserRepository;
+import com.smartuniversity.util.TtlCache;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+
+/**
+ * Bounded, TTL-based cache of users keyed by username.
+ *
+ * The JWT filter and AuthUtils resolve the caller on every request; this keeps those
+ * lookups off the users table in the steady state. Entries hold a detached snapshot and
+ * every read hands out a fresh copy, so callers may mutate and save the returned User
+ * without affecting other requests.
+ *
+ * Anything that changes a user row must call {@link #evict(String)} or {@link #evict(Long)}
+ * so the next request reloads it.
+ */
+@Component
+public class PrincipalCache {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.principal-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${app.principal-cache.max-size:10000}")
+    private int maxSize;
+
+    private TtlCache<String, User> entries;
+
+    @PostConstruct
+    public void init() {
+        entries = new TtlCache<>(ttlSeconds, maxSize);
+    }
+
+    /**
+     * Get a copy of the user with the given username, loading it on a miss.
+     *
+     * @param username Username (JWT subject)
+     * @return Detached copy of the user, or null if no such user exists
+     */
+    public User getUser(String username) {
+        if (username == null) {
+            return null;
+        }
+
+        User cached = entries.get(username);
+        if (cached != null) {
+            return copyOf(cached);
+        }
+
+        User user = userRepository.findByUsername(username).orElse(null);
+        if (user == null) {
+            entries.remove(username);
+            return null;
+        }
+
+        entries.put(username, copyOf(user));
+        return user;
+    }
+
+    /**
+     * Drop the cached entry for a username
+     */
+    public void evict(String username) {
+        entries.remove(username);
+    }
+
+    /**
+     * Drop the cached entry for a user id (used when only the id is known, e.g. admin actions)
+     */
+    public void evict(Long userId) {
+        if (userId != null) {
+            entries.removeIf(user -> userId.equals(user.getId()));
+        }
+    }
+
+    /**
+     * Drop all cached entries
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    public long getHitCount() {
+        return entries.getHitCount();
+    }
+
+    public long getMissCount() {
+        return entries.getMissCount();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static User copyOf(User source) {
+        User copy = new User(source.getFirstName(), source.getLastName(), source.getEmail(),
+                source.getUsername(), source.getPassword());
+        copy.setId(source.getId());
+        copy.setStudentId(source.getStudentId());
+        copy.setMajor(source.getMajor());
+        copy.setYear(source.getYear());
+        copy.setRole(source.getRole());
+        copy.setEnabled(source.isEnabled());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setUpdatedAt(source.getUpdatedAt());
+        copy.setPreferences(source.getPreferences() != null ? new HashSet<>(source.getPreferences()) : new HashSet<>());
+        copy.setProvider(source.getProvider());
+        copy.setProviderId(source.getProviderId());
+        copy.setImageUrl(source.getImageUrl());
+        copy.setResetPasswordOtp(source.getResetPasswordOtp());
+        copy.setResetPasswordOtpExpiry(source.getResetPasswordOtpExpiry());
+        copy.setEmailVerified(source.isEmailVerified());
+        copy.setEmailVerificationOtp(source.getEmailVerificationOtp());
+        copy.setEmailVerificationOtpExpiry(source.getEmailVerificationOtpExpiry());
+        copy.setTokenVersion(source.getTokenVersion());
+        return copy;
+    }
+}
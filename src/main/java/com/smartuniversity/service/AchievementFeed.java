@@ -0,0 +1,238 @@
+package com.smartuniversity.service;
+
+import com.smartuniversity.model.StudentAchievement;
+import com.smartuniversity.model.StudentAchievement.ApprovalStatus;
+import com.smartuniversity.model.User;
+import com.smartuniversity.repository.StudentAchievementRepository;
+import com.smartuniversity.repository.UserRepository;
+import com.smartuniversity.service.EngagementCounterBuffer.Counter;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Precomputed "popular" (hot) and "recent" feeds of approved, visible achievements.
+ *
+ * The newest approved achievements (up to max-size) are loaded with their students into an
+ * immutable snapshot that requests page through without touching the database. Engagement deltas
+ * are applied to the snapshot's counts as they happen, the hot order is re-ranked periodically
+ * (scores decay with age even without new engagement), and the snapshot is rebuilt from the
+ * database periodically and after moderation changes.
+ *
+ * Hot score: (1 + likes + 2 * comments + 3 * shares) / (ageHours + 2) ^ gravity
+ */
+@Component
+public class AchievementFeed implements EngagementCounterBuffer.Listener {
+
+    @Autowired
+    private StudentAchievementRepository achievementRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EngagementCounterBuffer counterBuffer;
+
+    @Value("${app.achievement-feed.max-size:200}")
+    private int maxSize;
+
+    @Value("${app.achievement-feed.page-size:10}")
+    private int defaultPageSize;
+
+    @Value("${app.achievement-feed.gravity:1.5}")
+    private double gravity;
+
+    private volatile Snapshot snapshot;
+    private volatile boolean stale = true;
+
+    /**
+     * One feed item: the achievement and its student as loaded, plus live engagement counts
+     */
+    public static final class Entry {
+        private final StudentAchievement achievement;
+        private final User student;
+        private final AtomicInteger likes;
+        private final AtomicInteger comments;
+        private final AtomicInteger shares;
+        private volatile double score;
+
+        private Entry(StudentAchievement achievement, User student, int likes, int comments, int shares) {
+            this.achievement = achievement;
+            this.student = student;
+            this.likes = new AtomicInteger(likes);
+            this.comments = new AtomicInteger(comments);
+            this.shares = new AtomicInteger(shares);
+        }
+
+        public StudentAchievement getAchievement() {
+            return achievement;
+        }
+
+        public User getStudent() {
+            return student;
+        }
+
+        public int getLikes() {
+            return Math.max(0, likes.get());
+        }
+
+        public int getComments() {
+            return Math.max(0, comments.get());
+        }
+
+        public int getShares() {
+            return Math.max(0, shares.get());
+        }
+    }
+
+    private record Snapshot(Map<Long, Entry> byId, List<Entry> hot, List<Entry> recent) {}
+
+    @PostConstruct
+    public void registerListener() {
+        counterBuffer.addListener(this);
+    }
+
+    public List<Entry> getPopular(int page, Integer size) {
+        return page(current().hot(), page, size);
+    }
+
+    public List<Entry> getRecent(int page, Integer size) {
+        return page(current().recent(), page, size);
+    }
+
+    /**
+     * Rebuild on the next read; inside a transaction this takes effect after commit so the
+     * rebuild sees the change
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    stale = true;
+                }
+            });
+        } else {
+            stale = true;
+        }
+    }
+
+    @Override
+    public void onIncrement(Counter counter, Long id, long delta) {
+        Snapshot current = snapshot;
+        Entry entry = current != null ? current.byId().get(id) : null;
+        if (entry == null) {
+            return;
+        }
+        switch (counter) {
+            case ACHIEVEMENT_LIKES -> entry.likes.addAndGet((int) delta);
+            case ACHIEVEMENT_COMMENTS -> entry.comments.addAndGet((int) delta);
+            case ACHIEVEMENT_SHARES -> entry.shares.addAndGet((int) delta);
+            default -> { }
+        }
+    }
+
+    // Re-sort the hot feed from the in-memory counts (ages change even when counts don't)
+    @Scheduled(fixedDelayString = "${app.achievement-feed.rerank-interval-ms:30000}")
+    public synchronized void rerank() {
+        Snapshot current = snapshot;
+        if (current != null && !stale) {
+            snapshot = new Snapshot(current.byId(), rankHot(current.recent()), current.recent());
+        }
+    }
+
+    // Pick up edits, profile changes and anything the incremental updates missed
+    @Scheduled(fixedDelayString = "${app.achievement-feed.rebuild-interval-ms:300000}")
+    public void refresh() {
+        if (snapshot != null) {
+            rebuild(true);
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current != null && !stale) {
+            return current;
+        }
+        return rebuild(false);
+    }
+
+    private synchronized Snapshot rebuild(boolean force) {
+        // Another request may have rebuilt while this one waited for the lock
+        if (!force && snapshot != null && !stale) {
+            return snapshot;
+        }
+        stale = false;
+
+        List<StudentAchievement> achievements = achievementRepository.findByStatusAndHiddenOrderByCreatedAtDesc(
+            ApprovalStatus.APPROVED, false, PageRequest.of(0, maxSize));
+
+        Set<Long> studentIds = new HashSet<>();
+        for (StudentAchievement achievement : achievements) {
+            studentIds.add(achievement.getStudentId());
+        }
+        Map<Long, User> userMap = new HashMap<>();
+        for (User u : userRepository.findAllById(studentIds)) {
+            userMap.put(u.getId(), u);
+        }
+
+        Map<Long, Entry> byId = new HashMap<>();
+        List<Entry> recent = new ArrayList<>(achievements.size());
+        for (StudentAchievement achievement : achievements) {
+            Long id = achievement.getId();
+            Entry entry = new Entry(achievement, userMap.get(achievement.getStudentId()),
+                count(achievement.getLikes(), Counter.ACHIEVEMENT_LIKES, id),
+                count(achievement.getComments(), Counter.ACHIEVEMENT_COMMENTS, id),
+                count(achievement.getShares(), Counter.ACHIEVEMENT_SHARES, id));
+            byId.put(id, entry);
+            recent.add(entry);
+        }
+
+        Snapshot rebuilt = new Snapshot(Collections.unmodifiableMap(byId), rankHot(recent), Collections.unmodifiableList(recent));
+        snapshot = rebuilt;
+        return rebuilt;
+    }
+
+    // Stored count plus deltas not yet flushed by the counter buffer
+    private int count(Integer stored, Counter counter, Long id) {
+        return (int) ((stored != null ? stored : 0) + counterBuffer.pending(counter, id));
+    }
+
+    private List<Entry> rankHot(List<Entry> entries) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Entry entry : entries) {
+            entry.score = score(entry, now);
+        }
+        List<Entry> hot = new ArrayList<>(entries);
+        hot.sort(Comparator.comparingDouble((Entry entry) -> entry.score).reversed());
+        return Collections.unmodifiableList(hot);
+    }
+
+    private double score(Entry entry, LocalDateTime now) {
+        StudentAchievement achievement = entry.achievement;
+        // Age from approval, so achievements approved after a long review are not buried on arrival
+        LocalDateTime postedAt = achievement.getApprovedAt() != null ? achievement.getApprovedAt() : achievement.getCreatedAt();
+        double ageHours = postedAt != null ? Math.max(0, Duration.between(postedAt, now).toMinutes() / 60.0) : 0;
+        double engagement = 1 + entry.getLikes() + 2.0 * entry.getComments() + 3.0 * entry.getShares();
+        return engagement / Math.pow(ageHours + 2, gravity);
+    }
+
+    private List<Entry> page(List<Entry> entries, int page, Integer size) {
+        int pageSize = size != null && size > 0 ? Math.min(size, maxSize) : defaultPageSize;
+        long from = (long) Math.max(0, page) * pageSize;
+        if (from >= entries.size()) {
+            return Collections.emptyList();
+        }
+        return entries.subList((int) from, (int) Math.min(entries.size(), from + pageSize));
+    }
+}
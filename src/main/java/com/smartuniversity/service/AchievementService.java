@@ -1,13 +1,19 @@
 package com.smartuniversity.service;
 
+import com.smartuniversity.dto.AchievementSummary;
 import com.smartuniversity.model.StudentAchievement;
 import com.smartuniversity.model.StudentAchievement.ApprovalStatus;
 import com.smartuniversity.model.AchievementComment;
 import com.smartuniversity.model.User;
 import com.smartuniversity.repository.StudentAchievementRepository;
 import com.smartuniversity.repository.AchievementCommentRepository;
+import com.smartuniversity.repository.AchievementLikeRepository;
 import com.smartuniversity.repository.UserRepository;
+import com.smartuniversity.service.CommentAuthorCache.AuthorProfile;
+import com.smartuniversity.service.EngagementCounterBuffer.Counter;
+import com.smartuniversity.util.KeysetCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,9 +32,24 @@ public class AchievementService {
     @Autowired
     private AchievementCommentRepository commentRepository;
 
+    @Autowired
+    private AchievementLikeRepository likeRepository;
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private EngagementCounterBuffer counterBuffer;
+
+    @Autowired
+    private AchievementFeed achievementFeed;
+
+    @Autowired
+    private CommentThreadService commentThreadService;
+
+    @Autowired
+    private CommentAuthorCache commentAuthorCache;
+
     // Create new achievement
     @Transactional
     public StudentAchievement createAchievement(StudentAchievement achievement) {
@@ -43,6 +64,7 @@ public class AchievementService {
             achievement.setStatus(ApprovalStatus.APPROVED);
             achievement.setApprovedAt(java.time.LocalDateTime.now());
             achievement.setApprovedBy(achievement.getStudentId()); // Self-approved as Verified Creator
+            achievementFeed.invalidate();
         } else {
             achievement.setStatus(ApprovalStatus.PENDING);
         }
@@ -71,6 +93,32 @@ public class AchievementService {
         return buildAchievementResponseList(achievements);
     }
 
+    // Cursor-paginated listings (see KeysetCursor): newest first, one page of summaries at a time
+
+    public Map<String, Object> getApprovedAchievementsPage(String cursor, int size) {
+        KeysetCursor before = cursor != null ? KeysetCursor.decode(cursor) : KeysetCursor.LATEST;
+        int pageSize = clampPageSize(size);
+        List<AchievementSummary> rows = achievementRepository.findVisibleBefore(
+            ApprovalStatus.APPROVED, before.timestamp(), before.id(), PageRequest.of(0, pageSize + 1));
+        return buildAchievementPage(rows, pageSize);
+    }
+
+    public Map<String, Object> getApprovedAchievementsByCategoryPage(String category, String cursor, int size) {
+        KeysetCursor before = cursor != null ? KeysetCursor.decode(cursor) : KeysetCursor.LATEST;
+        int pageSize = clampPageSize(size);
+        List<AchievementSummary> rows = achievementRepository.findVisibleByCategoryBefore(
+            ApprovalStatus.APPROVED, category, before.timestamp(), before.id(), PageRequest.of(0, pageSize + 1));
+        return buildAchievementPage(rows, pageSize);
+    }
+
+    public Map<String, Object> getAchievementsByStudentPage(Long studentId, String cursor, int size) {
+        KeysetCursor before = cursor != null ? KeysetCursor.decode(cursor) : KeysetCursor.LATEST;
+        int pageSize = clampPageSize(size);
+        List<AchievementSummary> rows = achievementRepository.findByStudentBefore(
+            studentId, before.timestamp(), before.id(), PageRequest.of(0, pageSize + 1));
+        return buildAchievementPage(rows, pageSize);
+    }
+
     // Get pending achievements (for admin)
     public List<Map<String, Object>> getPendingAchievements() {
         List<StudentAchievement> achievements = achievementRepository
@@ -108,6 +156,7 @@ public class AchievementService {
         achievement.setApprovedAt(LocalDateTime.now());
         achievement.setApprovedBy(adminId);
         achievementRepository.save(achievement);
+        achievementFeed.invalidate();
     }
 
     // Reject achievement
@@ -138,6 +187,7 @@ public class AchievementService {
             .orElseThrow(() -> new NotFoundException("Achievement not found"));
         achievement.setHidden(true);
         achievementRepository.save(achievement);
+        achievementFeed.invalidate();
     }
 
     // Unhide achievement
@@ -147,6 +197,7 @@ public class AchievementService {
             .orElseThrow(() -> new NotFoundException("Achievement not found"));
         achievement.setHidden(false);
         achievementRepository.save(achievement);
+        achievementFeed.invalidate();
     }
 
     // Update achievement image (admin only)
@@ -156,49 +207,56 @@ public class AchievementService {
             .orElseThrow(() -> new NotFoundException("Achievement not found"));
         achievement.setImageUrl(imageUrl);
         achievementRepository.save(achievement);
+        achievementFeed.invalidate();
     }
 
-    // Like achievement
+    // Like achievement; returns false if the user had already liked it
     @Transactional
-    public void likeAchievement(Long achievementId) {
-        StudentAchievement achievement = achievementRepository.findById(achievementId)
-            .orElseThrow(() -> new NotFoundException("Achievement not found"));
-        achievement.setLikes(achievement.getLikes() + 1);
-        achievementRepository.save(achievement);
+    public boolean likeAchievement(Long achievementId, Long userId) {
+        if (!achievementRepository.existsById(achievementId)) {
+            throw new NotFoundException("Achievement not found");
+        }
+        if (likeRepository.insertIfAbsent(achievementId, userId, LocalDateTime.now()) == 0) {
+            return false;
+        }
+        counterBuffer.increment(Counter.ACHIEVEMENT_LIKES, achievementId, 1);
+        return true;
     }
 
-    // Unlike achievement
+    // Unlike achievement; returns false if the user had not liked it
     @Transactional
-    public void unlikeAchievement(Long achievementId) {
-        StudentAchievement achievement = achievementRepository.findById(achievementId)
-            .orElseThrow(() -> new NotFoundException("Achievement not found"));
-        if (achievement.getLikes() > 0) {
-            achievement.setLikes(achievement.getLikes() - 1);
+    public boolean unlikeAchievement(Long achievementId, Long userId) {
+        if (!achievementRepository.existsById(achievementId)) {
+            throw new NotFoundException("Achievement not found");
         }
-        achievementRepository.save(achievement);
+        if (likeRepository.deleteByAchievementIdAndUserId(achievementId, userId) == 0) {
+            return false;
+        }
+        counterBuffer.increment(Counter.ACHIEVEMENT_LIKES, achievementId, -1);
+        return true;
     }
 
     // Share achievement
-    @Transactional
     public void shareAchievement(Long achievementId) {
-        StudentAchievement achievement = achievementRepository.findById(achievementId)
-            .orElseThrow(() -> new NotFoundException("Achievement not found"));
-        achievement.setShares(achievement.getShares() + 1);
-        achievementRepository.save(achievement);
+        if (!achievementRepository.existsById(achievementId)) {
+            throw new NotFoundException("Achievement not found");
+        }
+        counterBuffer.increment(Counter.ACHIEVEMENT_SHARES, achievementId, 1);
     }
 
-    // Add comment to achievement
+    // Add comment to achievement; parentId (optional) makes it a reply
     @Transactional
-    public AchievementComment addComment(Long achievementId, Long userId, String commentText) {
-        StudentAchievement achievement = achievementRepository.findById(achievementId)
-            .orElseThrow(() -> new NotFoundException("Achievement not found"));
+    public AchievementComment addComment(Long achievementId, Long userId, String commentText, Long parentId) {
+        if (!achievementRepository.existsById(achievementId)) {
+            throw new NotFoundException("Achievement not found");
+        }
 
         AchievementComment comment = new AchievementComment(achievementId, userId, commentText);
+        comment.setParentId(commentThreadService.resolveAchievementParent(achievementId, parentId));
         comment = commentRepository.save(comment);
 
         // Update comment count
-        achievement.setComments(achievement.getComments() + 1);
-        achievementRepository.save(achievement);
+        counterBuffer.increment(Counter.ACHIEVEMENT_COMMENTS, achievementId, 1);
 
         return comment;
     }
@@ -208,30 +266,28 @@ public class AchievementService {
         List<AchievementComment> comments = commentRepository
             .findByAchievementIdAndIsDeletedOrderByCreatedAtDesc(achievementId, false);
 
-        // Batch fetch users to avoid N+1 queries
+        // Authors come from the shared profile cache; only uncached ones are fetched (in one batch)
         Set<Long> userIds = new HashSet<>();
         for (AchievementComment comment : comments) {
             userIds.add(comment.getUserId());
         }
-        Map<Long, User> userMap = new HashMap<>();
-        for (User u : userRepository.findAllById(userIds)) {
-            userMap.put(u.getId(), u);
-        }
+        Map<Long, AuthorProfile> authors = commentAuthorCache.getAuthors(userIds);
 
         List<Map<String, Object>> response = new ArrayList<>();
         for (AchievementComment comment : comments) {
             Map<String, Object> commentData = new HashMap<>();
             commentData.put("id", comment.getId());
+            commentData.put("parentId", comment.getParentId());
             commentData.put("comment", comment.getComment());
             commentData.put("createdAt", comment.getCreatedAt());
             commentData.put("updatedAt", comment.getUpdatedAt());
 
             // Add user info
-            User user = userMap.get(comment.getUserId());
-            if (user != null) {
-                commentData.put("userName", user.getFirstName() + " " + user.getLastName());
-                commentData.put("userImageUrl", user.getImageUrl());
-                commentData.put("userRole", user.getRole().name());
+            AuthorProfile author = authors.get(comment.getUserId());
+            if (author != null) {
+                commentData.put("userName", author.name());
+                commentData.put("userImageUrl", author.imageUrl());
+                commentData.put("userRole", author.role());
             }
 
             response.add(commentData);
@@ -250,16 +306,14 @@ public class AchievementService {
             throw new ForbiddenException("Unauthorized to delete this comment");
         }
 
+        if (Boolean.TRUE.equals(comment.getIsDeleted())) {
+            return;
+        }
         comment.setIsDeleted(true);
         commentRepository.save(comment);
 
         // Update comment count
-        StudentAchievement achievement = achievementRepository.findById(comment.getAchievementId())
-            .orElse(null);
-        if (achievement != null && achievement.getComments() > 0) {
-            achievement.setComments(achievement.getComments() - 1);
-            achievementRepository.save(achievement);
-        }
+        counterBuffer.increment(Counter.ACHIEVEMENT_COMMENTS, comment.getAchievementId(), -1);
     }
 
     // Update achievement
@@ -321,6 +375,7 @@ public class AchievementService {
             achievement.setRejectionReason(null);
         }
 
+        achievementFeed.invalidate();
         return achievementRepository.save(achievement);
     }
 
@@ -338,8 +393,9 @@ public class AchievementService {
             throw new ForbiddenException("Approved achievements cannot be deleted");
         }
 
-        // Cascade delete related comments
+        // Cascade delete related comments and likes
         commentRepository.deleteByAchievementId(achievementId);
+        likeRepository.deleteByAchievementId(achievementId);
 
         achievementRepository.delete(achievement);
     }
@@ -363,9 +419,10 @@ public class AchievementService {
         response.put("rejectedBy", achievement.getRejectedBy());
         response.put("rejectionReason", achievement.getRejectionReason());
         response.put("hidden", achievement.isHidden());
-        response.put("likes", achievement.getLikes());
-        response.put("comments", achievement.getComments());
-        response.put("shares", achievement.getShares());
+        // Stored counts plus increments still waiting in the write-behind buffer
+        response.put("likes", withPending(achievement.getLikes(), Counter.ACHIEVEMENT_LIKES, achievement.getId()));
+        response.put("comments", withPending(achievement.getComments(), Counter.ACHIEVEMENT_COMMENTS, achievement.getId()));
+        response.put("shares", withPending(achievement.getShares(), Counter.ACHIEVEMENT_SHARES, achievement.getId()));
 
         // Add student info
         User student = userMap.get(achievement.getStudentId());
@@ -380,6 +437,37 @@ public class AchievementService {
         return response;
     }
 
+    private int withPending(Integer stored, Counter counter, Long achievementId) {
+        return (int) Math.max(0, (stored != null ? stored : 0) + counterBuffer.pending(counter, achievementId));
+    }
+
+    private static int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, 100));
+    }
+
+    /**
+     * Build a listing page from up to pageSize + 1 rows; the extra row only signals that more exist
+     */
+    private Map<String, Object> buildAchievementPage(List<AchievementSummary> rows, int pageSize) {
+        boolean hasNext = rows.size() > pageSize;
+        List<AchievementSummary> page = hasNext ? rows.subList(0, pageSize) : rows;
+
+        List<AchievementSummary> achievements = new ArrayList<>(page.size());
+        for (AchievementSummary summary : page) {
+            achievements.add(summary.withCounts(
+                withPending(summary.likes(), Counter.ACHIEVEMENT_LIKES, summary.id()),
+                withPending(summary.comments(), Counter.ACHIEVEMENT_COMMENTS, summary.id()),
+                withPending(summary.shares(), Counter.ACHIEVEMENT_SHARES, summary.id())));
+        }
+
+        AchievementSummary last = page.isEmpty() ? null : page.get(page.size() - 1);
+        Map<String, Object> response = new HashMap<>();
+        response.put("achievements", achievements);
+        response.put("hasNext", hasNext);
+        response.put("nextCursor", hasNext ? new KeysetCursor(last.createdAt(), last.id()).encode() : null);
+        return response;
+    }
+
     private List<Map<String, Object>> buildAchievementResponseList(List<StudentAchievement> achievements) {
         // Batch fetch students to avoid N+1 queries
         Set<Long> studentIds = new HashSet<>();
@@ -398,17 +486,29 @@ public class AchievementService {
         return response;
     }
 
-    // Get popular achievements (for discover tab)
-    public List<Map<String, Object>> getPopularAchievements() {
-        List<StudentAchievement> achievements = achievementRepository
-            .findTop10ByStatusAndHiddenOrderByLikesDesc(ApprovalStatus.APPROVED, false);
-        return buildAchievementResponseList(achievements);
+    // Get popular achievements (for discover tab): hot score over likes, comments and shares, decayed by age
+    public List<Map<String, Object>> getPopularAchievements(int page, Integer size) {
+        return buildFeedResponseList(achievementFeed.getPopular(page, size));
     }
 
     // Get recent achievements (for feed)
-    public List<Map<String, Object>> getRecentAchievements() {
-        List<StudentAchievement> achievements = achievementRepository
-            .findTop10ByStatusAndHiddenOrderByCreatedAtDesc(ApprovalStatus.APPROVED, false);
-        return buildAchievementResponseList(achievements);
+    public List<Map<String, Object>> getRecentAchievements(int page, Integer size) {
+        return buildFeedResponseList(achievementFeed.getRecent(page, size));
+    }
+
+    // Feed entries already carry their student and live counts, so no queries are needed here
+    private List<Map<String, Object>> buildFeedResponseList(List<AchievementFeed.Entry> entries) {
+        List<Map<String, Object>> response = new ArrayList<>(entries.size());
+        for (AchievementFeed.Entry entry : entries) {
+            StudentAchievement achievement = entry.getAchievement();
+            Map<Long, User> userMap = entry.getStudent() != null
+                ? Map.of(achievement.getStudentId(), entry.getStudent()) : Collections.emptyMap();
+            Map<String, Object> achievementData = buildAchievementResponse(achievement, userMap);
+            achievementData.put("likes", entry.getLikes());
+            achievementData.put("comments", entry.getComments());
+            achievementData.put("shares", entry.getShares());
+            response.add(achievementData);
+        }
+        return response;
     }
 }
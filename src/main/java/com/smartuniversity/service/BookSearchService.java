@@ -0,0 +1,186 @@
+package com.smartuniversity.service;
+
+import com.smartuniversity.model.Book;
+import com.smartuniversity.repository.BookRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Ranked, filtered, paginated search over the book marketplace.
+ *
+ * On PostgreSQL, books.search_vector (a generated tsvector over title, author, ISBN, category and
+ * description, see DatabaseInitializer) is matched with a prefix tsquery through its GIN index and
+ * ranked with ts_rank. Where that column does not exist (e.g. H2 in development) the same query
+ * runs as weighted LIKE matching. Every term must match somewhere; only approved books are returned.
+ */
+@Service
+public class BookSearchService {
+
+    private static final int MAX_TERMS = 8;
+
+    // Visibility used by the public book list: approved, or null status from before moderation existed
+    private static final String VISIBLE = "(b.status = 'APPROVED' OR b.status IS NULL)";
+
+    // Per-field weights for the LIKE fallback, mirroring the tsvector weights (A, A, A, B, C)
+    private static final String[][] FALLBACK_FIELDS = {
+        {"LOWER(b.title)", "4"},
+        {"LOWER(b.author)", "4"},
+        {"LOWER(REPLACE(COALESCE(b.isbn, ''), '-', ''))", "4"},
+        {"LOWER(b.category)", "2"},
+        {"LOWER(COALESCE(b.description, ''))", "1"}
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    private volatile Boolean fullTextAvailable;
+
+    public record Filters(Book.BookType bookType, Book.LendingType lendingType, Integer minPrice, Integer maxPrice) {
+        public static final Filters NONE = new Filters(null, null, null, null);
+    }
+
+    public record Result(List<Book> books, long total) {}
+
+    /**
+     * One page of books matching every term of the query, best match first.
+     * A query without searchable terms lists all books matching the filters, newest first.
+     */
+    public Result search(String query, Filters filters, int page, int size) {
+        List<String> terms = tokenize(query);
+        List<Object> args = new ArrayList<>();
+        String sql = !terms.isEmpty() && isFullTextAvailable()
+            ? fullTextSql(terms, filters, args)
+            : fallbackSql(terms, filters, args);
+        args.add(size);
+        args.add((long) page * size);
+
+        List<long[]> rows = jdbcTemplate.query(sql,
+            (rs, rowNum) -> new long[] { rs.getLong("id"), rs.getLong("total") }, args.toArray());
+        if (rows.isEmpty()) {
+            return new Result(List.of(), 0);
+        }
+
+        // Load the page's books in one query, then restore rank order
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (long[] row : rows) {
+            ids.add(row[0]);
+        }
+        Map<Long, Book> byId = new HashMap<>();
+        for (Book book : bookRepository.findAllById(ids)) {
+            byId.put(book.getId(), book);
+        }
+        List<Book> books = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Book book = byId.get(id);
+            if (book != null) {
+                books.add(book);
+            }
+        }
+        return new Result(books, rows.get(0)[1]);
+    }
+
+    private String fullTextSql(List<String> terms, Filters filters, List<Object> args) {
+        StringJoiner tsQuery = new StringJoiner(" & ");
+        for (String term : terms) {
+            tsQuery.add(term + ":*");
+        }
+        args.add(tsQuery.toString());
+
+        StringBuilder sql = new StringBuilder("SELECT b.id, COUNT(*) OVER () AS total " +
+            "FROM books b, to_tsquery('simple', ?) q WHERE b.search_vector @@ q AND " + VISIBLE);
+        appendFilters(sql, filters, args);
+        sql.append(" ORDER BY ts_rank(b.search_vector, q) DESC, b.upload_date DESC, b.id DESC LIMIT ? OFFSET ?");
+        return sql.toString();
+    }
+
+    private String fallbackSql(List<String> terms, Filters filters, List<Object> args) {
+        StringBuilder sql = new StringBuilder("SELECT b.id, COUNT(*) OVER () AS total FROM books b WHERE " + VISIBLE);
+        for (String term : terms) {
+            StringJoiner anyField = new StringJoiner(" OR ", " AND (", ")");
+            for (String[] field : FALLBACK_FIELDS) {
+                anyField.add(field[0] + " LIKE ?");
+                args.add("%" + term + "%");
+            }
+            sql.append(anyField);
+        }
+        appendFilters(sql, filters, args);
+
+        sql.append(" ORDER BY ");
+        if (!terms.isEmpty()) {
+            StringJoiner rank = new StringJoiner(" + ", "(", ") DESC, ");
+            for (String term : terms) {
+                for (String[] field : FALLBACK_FIELDS) {
+                    rank.add("CASE WHEN " + field[0] + " LIKE ? THEN " + field[1] + " ELSE 0 END");
+                    args.add("%" + term + "%");
+                }
+            }
+            sql.append(rank);
+        }
+        sql.append("b.upload_date DESC, b.id DESC LIMIT ? OFFSET ?");
+        return sql.toString();
+    }
+
+    private void appendFilters(StringBuilder sql, Filters filters, List<Object> args) {
+        if (filters.bookType() != null) {
+            sql.append(" AND b.book_type = ?");
+            args.add(filters.bookType().name());
+        }
+        if (filters.lendingType() != null) {
+            sql.append(" AND b.lending_type = ?");
+            args.add(filters.lendingType().name());
+        }
+        if (filters.minPrice() != null) {
+            sql.append(" AND b.price >= ?");
+            args.add(filters.minPrice());
+        }
+        if (filters.maxPrice() != null) {
+            sql.append(" AND b.price <= ?");
+            args.add(filters.maxPrice());
+        }
+    }
+
+    /**
+     * Lowercase letter/digit terms (so they are safe inside a tsquery and a LIKE pattern).
+     * ISBN-like chunks such as 978-0-13-110362-7 are kept whole with the hyphens removed.
+     */
+    static List<String> tokenize(String query) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (query == null) {
+            return List.of();
+        }
+        for (String chunk : query.toLowerCase(Locale.ROOT).trim().split("\\s+")) {
+            if (chunk.matches("[0-9x-]+") && chunk.replaceAll("[^0-9]", "").length() >= 9) {
+                terms.add(chunk.replace("-", ""));
+                continue;
+            }
+            for (String term : chunk.split("[^\\p{L}\\p{N}]+")) {
+                if (!term.isEmpty()) {
+                    terms.add(term);
+                }
+            }
+        }
+        List<String> result = new ArrayList<>(terms);
+        return result.size() > MAX_TERMS ? result.subList(0, MAX_TERMS) : result;
+    }
+
+    private boolean isFullTextAvailable() {
+        Boolean available = fullTextAvailable;
+        if (available == null) {
+            try {
+                Integer columns = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.columns " +
+                    "WHERE LOWER(table_name) = 'books' AND LOWER(column_name) = 'search_vector'", Integer.class);
+                available = columns != null && columns > 0;
+            } catch (Exception e) {
+                available = false;
+            }
+            fullTextAvailable = available;
+        }
+        return available;
+    }
+}
@@ -0,0 +1,76 @@
+package com.smartuniversity.service;
+
+import com.smartuniversity.model.User;
+import com.smartuniversity.repository.UserRepository;
+import com.smartuniversity.util.TtlCache;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Bounded, TTL-based cache of comment author profiles (name, avatar, role) keyed by user id.
+ *
+ * Active commenters show up on page after page of comment threads; this resolves them from
+ * memory and loads only the misses, in one batch per page.
+ *
+ * Anything that changes a user's name, image or role (or deletes the user) should call
+ * {@link #evict(Long)}. The TTL bounds staleness across application instances.
+ */
+@Component
+public class CommentAuthorCache {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.comment-author-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${app.comment-author-cache.max-size:5000}")
+    private int maxSize;
+
+    private TtlCache<Long, AuthorProfile> entries;
+
+    public record AuthorProfile(Long id, String name, String imageUrl, String role) {}
+
+    @PostConstruct
+    public void init() {
+        entries = new TtlCache<>(ttlSeconds, maxSize);
+    }
+
+    /**
+     * Profiles for the given users; users that no longer exist are absent from the result
+     */
+    public Map<Long, AuthorProfile> getAuthors(Collection<Long> userIds) {
+        Map<Long, AuthorProfile> authors = new HashMap<>();
+        Set<Long> misses = new HashSet<>();
+        for (Long userId : userIds) {
+            AuthorProfile cached = entries.get(userId);
+            if (cached != null) {
+                authors.put(userId, cached);
+            } else if (userId != null) {
+                misses.add(userId);
+            }
+        }
+        if (misses.isEmpty()) {
+            return authors;
+        }
+
+        for (User user : userRepository.findAllById(misses)) {
+            AuthorProfile profile = new AuthorProfile(user.getId(), user.getFirstName() + " " + user.getLastName(),
+                user.getImageUrl(), user.getRole() != null ? user.getRole().name() : null);
+            authors.put(user.getId(), profile);
+            entries.put(user.getId(), profile);
+        }
+        return authors;
+    }
+
+    /**
+     * Drop the cached profile for a user
+     */
+    public void evict(Long userId) {
+        entries.remove(userId);
+    }
+}
@@ -0,0 +1,180 @@
+package com.smartuniversity.service;
+
+import com.smartuniversity.dto.CommentRow;
+import com.smartuniversity.exception.NotFoundException;
+import com.smartuniversity.model.AchievementComment;
+import com.smartuniversity.model.EventComment;
+import com.smartuniversity.repository.AchievementCommentRepository;
+import com.smartuniversity.repository.EventCommentRepository;
+import com.smartuniversity.service.CommentAuthorCache.AuthorProfile;
+import com.smartuniversity.util.KeysetCursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Paginated, threaded reads of event and achievement comments.
+ *
+ * Threads are one level deep: top-level comments are paged newest first with their reply
+ * counts, and each comment's replies are paged oldest first through a separate cursor.
+ * Authors are resolved through {@link CommentAuthorCache}.
+ */
+@Service
+public class CommentThreadService {
+
+    @Autowired
+    private EventCommentRepository eventCommentRepository;
+
+    @Autowired
+    private AchievementCommentRepository achievementCommentRepository;
+
+    @Autowired
+    private CommentAuthorCache authorCache;
+
+    // Top-level event comments, newest first, with reply counts
+    public Map<String, Object> getEventComments(Long eventId, String cursor, int size) {
+        KeysetCursor before = cursor != null ? KeysetCursor.decode(cursor) : KeysetCursor.LATEST;
+        int pageSize = clampPageSize(size);
+        List<CommentRow> rows = eventCommentRepository.findTopLevelBefore(
+            eventId, before.timestamp(), before.id(), PageRequest.of(0, pageSize + 1));
+        return buildPage(rows, pageSize, ids -> eventCommentRepository.countRepliesByParentIds(ids));
+    }
+
+    // Replies to one event comment, oldest first (still listed when the parent itself was deleted)
+    public Map<String, Object> getEventReplies(Long eventId, Long commentId, String cursor, int size) {
+        EventComment parent = eventCommentRepository.findById(commentId)
+            .filter(c -> c.getEventId().equals(eventId))
+            .orElseThrow(() -> new NotFoundException("Comment not found"));
+        KeysetCursor after = cursor != null ? KeysetCursor.decode(cursor) : KeysetCursor.EARLIEST;
+        int pageSize = clampPageSize(size);
+        List<CommentRow> rows = eventCommentRepository.findRepliesAfter(
+            parent.getId(), after.timestamp(), after.id(), PageRequest.of(0, pageSize + 1));
+        return buildPage(rows, pageSize, null);
+    }
+
+    // Top-level achievement comments, newest first, with reply counts
+    public Map<String, Object> getAchievementComments(Long achievementId, String cursor, int size) {
+        KeysetCursor before = cursor != null ? KeysetCursor.decode(cursor) : KeysetCursor.LATEST;
+        int pageSize = clampPageSize(size);
+        List<CommentRow> rows = achievementCommentRepository.findTopLevelBefore(
+            achievementId, before.timestamp(), before.id(), PageRequest.of(0, pageSize + 1));
+        return buildPage(rows, pageSize, ids -> achievementCommentRepository.countRepliesByParentIds(ids));
+    }
+
+    // Replies to one achievement comment, oldest first (still listed when the parent itself was deleted)
+    public Map<String, Object> getAchievementReplies(Long achievementId, Long commentId, String cursor, int size) {
+        AchievementComment parent = achievementCommentRepository.findById(commentId)
+            .filter(c -> c.getAchievementId().equals(achievementId))
+            .orElseThrow(() -> new NotFoundException("Comment not found"));
+        KeysetCursor after = cursor != null ? KeysetCursor.decode(cursor) : KeysetCursor.EARLIEST;
+        int pageSize = clampPageSize(size);
+        List<CommentRow> rows = achievementCommentRepository.findRepliesAfter(
+            parent.getId(), after.timestamp(), after.id(), PageRequest.of(0, pageSize + 1));
+        return buildPage(rows, pageSize, null);
+    }
+
+    /**
+     * Validate a reply target on an event and return the top-level comment the reply belongs to
+     * (replying to a reply attaches to its thread)
+     */
+    public Long resolveEventParent(Long eventId, Long parentId) {
+        if (parentId == null) {
+            return null;
+        }
+        EventComment parent = eventCommentRepository.findById(parentId)
+            .filter(c -> c.getEventId().equals(eventId) && !Boolean.TRUE.equals(c.getIsDeleted()))
+            .orElseThrow(() -> new NotFoundException("Parent comment not found"));
+        return parent.getParentId() != null ? parent.getParentId() : parent.getId();
+    }
+
+    /**
+     * Validate a reply target on an achievement and return the top-level comment the reply belongs to
+     */
+    public Long resolveAchievementParent(Long achievementId, Long parentId) {
+        if (parentId == null) {
+            return null;
+        }
+        AchievementComment parent = achievementCommentRepository.findById(parentId)
+            .filter(c -> c.getAchievementId().equals(achievementId) && !Boolean.TRUE.equals(c.getIsDeleted()))
+            .orElseThrow(() -> new NotFoundException("Parent comment not found"));
+        return parent.getParentId() != null ? parent.getParentId() : parent.getId();
+    }
+
+    // Comment maps with author name, avatar and role filled in from the author cache
+    private List<Map<String, Object>> toResponses(List<CommentRow> rows, Map<Long, Long> replyCounts) {
+        Set<Long> userIds = new HashSet<>();
+        for (CommentRow row : rows) {
+            if (!row.isDeleted()) {
+                userIds.add(row.userId());
+            }
+        }
+        Map<Long, AuthorProfile> authors = authorCache.getAuthors(userIds);
+
+        List<Map<String, Object>> comments = new ArrayList<>(rows.size());
+        for (CommentRow row : rows) {
+            Map<String, Object> commentData = new HashMap<>();
+            commentData.put("id", row.id());
+            commentData.put("parentId", row.parentId());
+            commentData.put("createdAt", row.createdAt() != null ? row.createdAt().toString() : null);
+            commentData.put("deleted", row.isDeleted());
+            if (replyCounts != null) {
+                commentData.put("replyCount", replyCounts.getOrDefault(row.id(), 0L));
+            }
+            if (row.isDeleted()) {
+                // Placeholder keeping the thread's replies reachable; text and author are withheld
+                comments.add(commentData);
+                continue;
+            }
+            commentData.put("comment", row.comment());
+            commentData.put("updatedAt", row.updatedAt() != null ? row.updatedAt().toString() : null);
+            commentData.put("userId", row.userId());
+
+            AuthorProfile author = authors.get(row.userId());
+            if (author != null) {
+                commentData.put("userName", author.name());
+                commentData.put("userImageUrl", author.imageUrl());
+                commentData.put("userRole", author.role());
+            }
+            comments.add(commentData);
+        }
+        return comments;
+    }
+
+    private static int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, 100));
+    }
+
+    /**
+     * Build a thread page from up to pageSize + 1 rows; the extra row only signals that more exist.
+     * Reply counts are fetched (one grouped query) only for top-level pages.
+     */
+    private Map<String, Object> buildPage(List<CommentRow> rows, int pageSize,
+                                          Function<Collection<Long>, List<Object[]>> replyCounter) {
+        boolean hasNext = rows.size() > pageSize;
+        List<CommentRow> page = hasNext ? rows.subList(0, pageSize) : rows;
+
+        Map<Long, Long> replyCounts = null;
+        if (replyCounter != null) {
+            replyCounts = new HashMap<>();
+            if (!page.isEmpty()) {
+                List<Long> ids = new ArrayList<>(page.size());
+                for (CommentRow row : page) {
+                    ids.add(row.id());
+                }
+                for (Object[] row : replyCounter.apply(ids)) {
+                    replyCounts.put((Long) row[0], (Long) row[1]);
+                }
+            }
+        }
+
+        CommentRow last = page.isEmpty() ? null : page.get(page.size() - 1);
+        Map<String, Object> response = new HashMap<>();
+        response.put("comments", toResponses(page, replyCounts));
+        response.put("hasNext", hasNext);
+        response.put("nextCursor", hasNext ? new KeysetCursor(last.createdAt(), last.id()).encode() : null);
+        return response;
+    }
+}
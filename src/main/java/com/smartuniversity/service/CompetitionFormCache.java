@@ -0,0 +1,59 @@
+package com.smartuniversity.service;
+
+import com.smartuniversity.repository.FormFieldRepository;
+import com.smartuniversity.util.TtlCache;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded, TTL-based cache of compiled enrollment forms keyed by competition id.
+ *
+ * Competition detail pages, enrollment validation and exports all need the form definition;
+ * this keeps them off the form_fields table and avoids re-parsing option JSON per request.
+ *
+ * Anything that changes a competition's form fields (or deletes the competition) must call
+ * {@link #evict(Long)}. The TTL bounds staleness across application instances.
+ */
+@Component
+public class CompetitionFormCache {
+
+    @Autowired
+    private FormFieldRepository formFieldRepository;
+
+    @Value("${app.competition-form-cache.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    @Value("${app.competition-form-cache.max-size:1000}")
+    private int maxSize;
+
+    private TtlCache<Long, CompiledCompetitionForm> entries;
+
+    @PostConstruct
+    public void init() {
+        entries = new TtlCache<>(ttlSeconds, maxSize);
+    }
+
+    /**
+     * Get the compiled form for a competition, loading and compiling it on a miss.
+     * Competitions without form fields yield an empty form.
+     */
+    public CompiledCompetitionForm getForm(Long competitionId) {
+        CompiledCompetitionForm form = entries.get(competitionId);
+        if (form != null) {
+            return form;
+        }
+
+        form = CompiledCompetitionForm.compile(formFieldRepository.findByCompetitionIdOrderByOrderAsc(competitionId));
+        entries.put(competitionId, form);
+        return form;
+    }
+
+    /**
+     * Drop the cached form for a competition
+     */
+    public void evict(Long competitionId) {
+        entries.remove(competitionId);
+    }
+}
@@ -0,0 +1,193 @@
+package com.smartuniversity.service;
+
+import com.smartuniversity.model.CompetitionResponseTally;
+import com.smartuniversity.model.FormField;
+import com.smartuniversity.model.FormField.FieldType;
+import com.smartuniversity.repository.CompetitionEnrollmentRepository;
+import com.smartuniversity.repository.CompetitionRepository;
+import com.smartuniversity.repository.CompetitionResponseTallyRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.*;
+
+/**
+ * Per-field answer tallies for competition enrollment forms.
+ *
+ * Tallies are adjusted on every enroll/withdraw, so distributions are read from
+ * O(distinct answers) rows instead of re-parsing every enrollment's formResponses.
+ * Callers must hold the competition row lock (taken by claimEnrollmentSlot /
+ * releaseEnrollmentSlot), which serializes the update-or-insert below.
+ */
+@Service
+public class CompetitionResponseTallyService {
+
+    private static final int NUMBER_BUCKETS = 10;
+
+    @Autowired
+    private CompetitionResponseTallyRepository tallyRepository;
+
+    @Autowired
+    private CompetitionEnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private CompetitionRepository competitionRepository;
+
+    @Autowired
+    private CompetitionFormCache formCache;
+
+    /**
+     * Add (delta = 1) or remove (delta = -1) one enrollment's answers from the tallies
+     */
+    @Transactional
+    public void record(Long competitionId, String formResponses, int delta) {
+        CompiledCompetitionForm form = formCache.getForm(competitionId);
+        if (!form.hasTalliedFields()) {
+            return;
+        }
+        for (Map.Entry<String, Set<String>> answer : form.tallyAnswers(formResponses).entrySet()) {
+            for (String value : answer.getValue()) {
+                int updated = tallyRepository.adjustCount(competitionId, answer.getKey(), value, delta);
+                if (updated == 0 && delta > 0) {
+                    tallyRepository.save(new CompetitionResponseTally(competitionId, answer.getKey(), value, delta));
+                }
+            }
+        }
+    }
+
+    /**
+     * Recompute a competition's tallies from its active enrollments in one pass
+     */
+    @Transactional
+    public void rebuild(Long competitionId) {
+        if (competitionRepository.findByIdForUpdate(competitionId).isEmpty()) {
+            return;
+        }
+        tallyRepository.deleteByCompetitionId(competitionId);
+
+        CompiledCompetitionForm form = formCache.getForm(competitionId);
+        if (!form.hasTalliedFields()) {
+            return;
+        }
+
+        // label -> value -> count; memory is bounded by the number of distinct answers
+        Map<String, Map<String, Integer>> counts = new LinkedHashMap<>();
+        enrollmentRepository.streamEnrolledForExport(competitionId, row -> {
+            for (Map.Entry<String, Set<String>> answer : form.tallyAnswers(row.formResponses()).entrySet()) {
+                Map<String, Integer> values = counts.computeIfAbsent(answer.getKey(), label -> new HashMap<>());
+                for (String value : answer.getValue()) {
+                    values.merge(value, 1, Integer::sum);
+                }
+            }
+        });
+
+        List<CompetitionResponseTally> tallies = new ArrayList<>();
+        counts.forEach((label, values) -> values.forEach((value, count) ->
+            tallies.add(new CompetitionResponseTally(competitionId, label, value, count))));
+        tallyRepository.saveAll(tallies);
+    }
+
+    @Transactional
+    public void deleteTallies(Long competitionId) {
+        tallyRepository.deleteByCompetitionId(competitionId);
+    }
+
+    /**
+     * Answer distributions for every dropdown, checkbox and number field of a competition's form
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getDistributions(Long competitionId) {
+        CompiledCompetitionForm form = formCache.getForm(competitionId);
+
+        Map<String, Map<String, Integer>> counts = new HashMap<>();
+        for (CompetitionResponseTally tally : tallyRepository.findActiveByCompetitionId(competitionId)) {
+            counts.computeIfAbsent(tally.getFieldLabel(), label -> new HashMap<>())
+                .put(tally.getAnswerValue(), tally.getAnswerCount());
+        }
+
+        List<Map<String, Object>> fields = new ArrayList<>();
+        for (FormField field : form.getFields()) {
+            if (!CompiledCompetitionForm.isTallied(field.getFieldType())) {
+                continue;
+            }
+            Map<String, Integer> values = counts.getOrDefault(field.getFieldLabel(), Collections.emptyMap());
+
+            Map<String, Object> fieldData = new LinkedHashMap<>();
+            fieldData.put("label", field.getFieldLabel());
+            fieldData.put("type", field.getFieldType().toString());
+            if (field.getFieldType() == FieldType.NUMBER) {
+                fieldData.putAll(numberDistribution(values));
+            } else {
+                fieldData.put("values", optionDistribution(form.getOptions(field.getFieldLabel()), values));
+            }
+            fields.add(fieldData);
+        }
+        return fields;
+    }
+
+    // Defined options first (in form order, including unpicked ones), then any other answers by count
+    private List<Map<String, Object>> optionDistribution(Set<String> options, Map<String, Integer> counts) {
+        List<Map<String, Object>> values = new ArrayList<>();
+        for (String option : options) {
+            values.add(Map.of("value", option, "count", counts.getOrDefault(option, 0)));
+        }
+        counts.entrySet().stream()
+            .filter(entry -> !options.contains(entry.getKey()))
+            .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+            .forEach(entry -> values.add(Map.of("value", entry.getKey(), "count", entry.getValue())));
+        return values;
+    }
+
+    // count/min/max/mean plus equal-width buckets, computed from the distinct numeric answers
+    private Map<String, Object> numberDistribution(Map<String, Integer> counts) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long total = 0;
+        BigDecimal sum = BigDecimal.ZERO;
+        BigDecimal min = null;
+        BigDecimal max = null;
+        Map<BigDecimal, Integer> numbers = new TreeMap<>();
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            BigDecimal number = new BigDecimal(entry.getKey());
+            numbers.put(number, entry.getValue());
+            total += entry.getValue();
+            sum = sum.add(number.multiply(BigDecimal.valueOf(entry.getValue())));
+            min = min == null || number.compareTo(min) < 0 ? number : min;
+            max = max == null || number.compareTo(max) > 0 ? number : max;
+        }
+
+        stats.put("count", total);
+        stats.put("min", min);
+        stats.put("max", max);
+        stats.put("mean", total > 0 ? plain(sum.divide(BigDecimal.valueOf(total), MathContext.DECIMAL64)) : null);
+
+        List<Map<String, Object>> buckets = new ArrayList<>();
+        if (min != null) {
+            int bucketCount = min.compareTo(max) == 0 ? 1 : Math.min(NUMBER_BUCKETS, numbers.size());
+            BigDecimal width = max.subtract(min).divide(BigDecimal.valueOf(bucketCount), MathContext.DECIMAL64);
+            long[] bucketTotals = new long[bucketCount];
+            for (Map.Entry<BigDecimal, Integer> entry : numbers.entrySet()) {
+                int index = width.signum() == 0 ? 0
+                    : Math.min(bucketCount - 1, entry.getKey().subtract(min).divide(width, MathContext.DECIMAL64).intValue());
+                bucketTotals[index] += entry.getValue();
+            }
+            for (int i = 0; i < bucketCount; i++) {
+                Map<String, Object> bucket = new LinkedHashMap<>();
+                bucket.put("from", plain(min.add(width.multiply(BigDecimal.valueOf(i)))));
+                bucket.put("to", i == bucketCount - 1 ? max : plain(min.add(width.multiply(BigDecimal.valueOf(i + 1)))));
+                bucket.put("count", bucketTotals[i]);
+                buckets.add(bucket);
+            }
+        }
+        stats.put("buckets", buckets);
+        return stats;
+    }
+
+    // Round to 4 decimals and drop trailing zeros without switching to exponent notation (20, not 2E+1)
+    private static BigDecimal plain(BigDecimal value) {
+        return new BigDecimal(value.setScale(4, RoundingMode.HALF_UP).stripTrailingZeros().toPlainString());
+    }
+}
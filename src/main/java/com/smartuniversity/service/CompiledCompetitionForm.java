@@ -0,0 +1,315 @@
+package com.smartuniversity.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.smartuniversity.model.FormField;
+import com.smartuniversity.model.FormField.FieldType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.regex.Pattern;
+
+/**
+ * A competition's enrollment form with option lists parsed once, ready to validate and
+ * normalize submitted responses.
+ *
+ * Instances are immutable and shared across requests through {@link CompetitionFormCache}.
+ * Normalized responses are a JSON object keyed by field label in form order, with typed values:
+ * numbers as JSON numbers, dates as ISO yyyy-MM-dd and checkbox answers as arrays.
+ */
+public final class CompiledCompetitionForm {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final Pattern PHONE = Pattern.compile("^\\+?[0-9 ()\\-]{6,20}$");
+
+    // Matches the formResponses column length on CompetitionEnrollment
+    private static final int MAX_RESPONSES_LENGTH = 5000;
+
+    // Matches the answer_value column length on CompetitionResponseTally
+    private static final int MAX_TALLY_VALUE_LENGTH = 500;
+
+    private record CompiledField(String label, FieldType type, boolean required, Set<String> options) {}
+
+    private final List<FormField> fields;
+    private final List<CompiledField> compiledFields;
+    private final List<String> labels;
+    private final Map<String, CompiledField> fieldsByLabel;
+
+    private CompiledCompetitionForm(List<FormField> fields) {
+        List<CompiledField> compiled = new ArrayList<>(fields.size());
+        List<String> labelList = new ArrayList<>(fields.size());
+        Map<String, CompiledField> byLabel = new LinkedHashMap<>();
+        for (FormField field : fields) {
+            CompiledField compiledField = new CompiledField(field.getFieldLabel(), field.getFieldType(),
+                    field.isRequired(), parseOptions(field.getOptions()));
+            compiled.add(compiledField);
+            labelList.add(field.getFieldLabel());
+            byLabel.putIfAbsent(field.getFieldLabel(), compiledField);
+        }
+        this.fields = Collections.unmodifiableList(new ArrayList<>(fields));
+        this.compiledFields = Collections.unmodifiableList(compiled);
+        this.labels = Collections.unmodifiableList(labelList);
+        this.fieldsByLabel = Collections.unmodifiableMap(byLabel);
+    }
+
+    public static CompiledCompetitionForm compile(List<FormField> fields) {
+        return new CompiledCompetitionForm(fields);
+    }
+
+    /**
+     * Field definitions in form order (as returned to clients)
+     */
+    public List<FormField> getFields() {
+        return fields;
+    }
+
+    /**
+     * Field labels in form order
+     */
+    public List<String> getLabels() {
+        return labels;
+    }
+
+    public boolean isEmpty() {
+        return compiledFields.isEmpty();
+    }
+
+    /**
+     * Parsed options of a dropdown/checkbox field (empty if none are defined or the label is unknown)
+     */
+    public Set<String> getOptions(String label) {
+        CompiledField field = fieldsByLabel.get(label);
+        return field != null ? field.options() : Collections.emptySet();
+    }
+
+    /**
+     * Whether answers to this field type are tallied for response analytics
+     */
+    public static boolean isTallied(FieldType type) {
+        return type == FieldType.DROPDOWN || type == FieldType.CHECKBOX || type == FieldType.NUMBER;
+    }
+
+    public boolean hasTalliedFields() {
+        return compiledFields.stream().anyMatch(field -> isTallied(field.type()));
+    }
+
+    /**
+     * Distinct answers to the tallied fields of a stored formResponses JSON string (label -> values).
+     * Numbers are rendered in plain canonical form so 21, 21.0 and "21" tally together.
+     */
+    public Map<String, Set<String>> tallyAnswers(String formResponses) {
+        Map<String, Set<String>> answers = new LinkedHashMap<>();
+        JsonNode responses = parse(formResponses);
+        if (responses == null || !responses.isObject()) {
+            return answers;
+        }
+        for (CompiledField field : fieldsByLabel.values()) {
+            if (!isTallied(field.type())) {
+                continue;
+            }
+            JsonNode answer = responses.get(field.label());
+            if (isBlank(answer)) {
+                continue;
+            }
+            Set<String> values = new LinkedHashSet<>();
+            for (JsonNode item : answer.isArray() ? answer : JSON.createArrayNode().add(answer)) {
+                String text = item.asText().trim();
+                if (field.type() == FieldType.NUMBER) {
+                    try {
+                        text = new BigDecimal(text).stripTrailingZeros().toPlainString();
+                    } catch (NumberFormatException e) {
+                        continue;
+                    }
+                }
+                if (!text.isEmpty()) {
+                    values.add(text.length() > MAX_TALLY_VALUE_LENGTH ? text.substring(0, MAX_TALLY_VALUE_LENGTH) : text);
+                }
+            }
+            if (!values.isEmpty()) {
+                answers.put(field.label(), values);
+            }
+        }
+        return answers;
+    }
+
+    /**
+     * Validate a submitted formResponses JSON string and return its normalized form.
+     * Forms without fields accept the payload unchanged.
+     *
+     * @throws IllegalArgumentException naming the first invalid field
+     */
+    public String normalize(String formResponses) {
+        if (compiledFields.isEmpty()) {
+            return formResponses;
+        }
+
+        JsonNode submitted = parse(formResponses);
+        if (formResponses != null && !formResponses.isBlank() && (submitted == null || !submitted.isObject())) {
+            throw new IllegalArgumentException("Invalid form responses");
+        }
+
+        ObjectNode normalized = JSON.createObjectNode();
+        for (CompiledField field : compiledFields) {
+            JsonNode answer = submitted != null ? submitted.get(field.label()) : null;
+            JsonNode value = isBlank(answer) ? null : normalizeAnswer(field, answer);
+            if (value == null) {
+                if (field.required()) {
+                    throw new IllegalArgumentException("'" + field.label() + "' is required");
+                }
+                continue;
+            }
+            normalized.set(field.label(), value);
+        }
+
+        String json = normalized.toString();
+        if (json.length() > MAX_RESPONSES_LENGTH) {
+            throw new IllegalArgumentException("Form responses are too long");
+        }
+        return json;
+    }
+
+    /**
+     * Spread a stored formResponses JSON string over the form's columns (array answers joined with "; ")
+     */
+    public List<String> toColumns(String formResponses) {
+        JsonNode responses = parse(formResponses);
+        List<String> columns = new ArrayList<>(labels.size());
+        for (String label : labels) {
+            JsonNode answer = responses != null ? responses.get(label) : null;
+            if (answer == null || answer.isNull()) {
+                columns.add("");
+            } else if (answer.isArray()) {
+                StringJoiner joined = new StringJoiner("; ");
+                answer.forEach(item -> joined.add(item.asText()));
+                columns.add(joined.toString());
+            } else {
+                columns.add(answer.isValueNode() ? answer.asText() : answer.toString());
+            }
+        }
+        return columns;
+    }
+
+    private JsonNode normalizeAnswer(CompiledField field, JsonNode answer) {
+        String label = field.label();
+        switch (field.type()) {
+            case NUMBER: {
+                if (answer.isNumber()) {
+                    return answer;
+                }
+                try {
+                    return JSON.getNodeFactory().numberNode(new BigDecimal(answer.asText().trim()));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("'" + label + "' must be a number");
+                }
+            }
+            case EMAIL: {
+                String text = answer.asText().trim();
+                if (!EMAIL.matcher(text).matches()) {
+                    throw new IllegalArgumentException("'" + label + "' must be a valid email address");
+                }
+                return JSON.getNodeFactory().textNode(text);
+            }
+            case PHONE: {
+                String text = answer.asText().trim();
+                if (!PHONE.matcher(text).matches()) {
+                    throw new IllegalArgumentException("'" + label + "' must be a valid phone number");
+                }
+                return JSON.getNodeFactory().textNode(text);
+            }
+            case DATE: {
+                String text = answer.asText().trim();
+                try {
+                    // Accept full ISO timestamps from date pickers and keep the date part
+                    return JSON.getNodeFactory().textNode(LocalDate.parse(text.length() > 10 ? text.substring(0, 10) : text).toString());
+                } catch (DateTimeParseException e) {
+                    throw new IllegalArgumentException("'" + label + "' must be a date (yyyy-MM-dd)");
+                }
+            }
+            case DROPDOWN: {
+                String text = answer.asText().trim();
+                requireOption(field, text);
+                return JSON.getNodeFactory().textNode(text);
+            }
+            case CHECKBOX: {
+                // A checkbox without options is a single yes/no box
+                if (field.options().isEmpty() && answer.isBoolean()) {
+                    return field.required() && !answer.booleanValue() ? null : answer;
+                }
+                ArrayNode selected = JSON.createArrayNode();
+                Set<String> seen = new LinkedHashSet<>();
+                for (JsonNode item : answer.isArray() ? answer : JSON.createArrayNode().add(answer)) {
+                    String text = item.asText().trim();
+                    if (!text.isEmpty() && seen.add(text)) {
+                        requireOption(field, text);
+                        selected.add(text);
+                    }
+                }
+                return selected.isEmpty() ? null : selected;
+            }
+            default: {
+                // TEXT, TEXTAREA
+                if (!answer.isValueNode()) {
+                    throw new IllegalArgumentException("'" + label + "' must be text");
+                }
+                return JSON.getNodeFactory().textNode(answer.asText().trim());
+            }
+        }
+    }
+
+    private static void requireOption(CompiledField field, String value) {
+        if (!field.options().isEmpty() && !field.options().contains(value)) {
+            throw new IllegalArgumentException("'" + value + "' is not an option for '" + field.label() + "'");
+        }
+    }
+
+    private static boolean isBlank(JsonNode answer) {
+        return answer == null || answer.isNull()
+                || (answer.isTextual() && answer.asText().isBlank())
+                || (answer.isContainerNode() && answer.isEmpty());
+    }
+
+    private static JsonNode parse(String json) {
+        if (json == null || json.isBlank()) {
+            return null;
+        }
+        try {
+            return JSON.readTree(json);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Options are stored as a JSON array; older rows may hold a plain comma-separated list
+     */
+    private static Set<String> parseOptions(String options) {
+        if (options == null || options.isBlank()) {
+            return Collections.emptySet();
+        }
+        Set<String> parsed = new LinkedHashSet<>();
+        JsonNode node = parse(options);
+        if (node != null && node.isArray()) {
+            node.forEach(option -> parsed.add(option.asText().trim()));
+        } else {
+            for (String option : options.split(",")) {
+                if (!option.isBlank()) {
+                    parsed.add(option.trim());
+                }
+            }
+        }
+        return Collections.unmodifiableSet(parsed);
+    }
+}
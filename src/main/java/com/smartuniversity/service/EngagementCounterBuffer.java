@@ -0,0 +1,152 @@
+package com.smartuniversity.service;
+
+import com.smartuniversity.util.CounterBuffer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind buffer for high-frequency engagement counters (likes, shares, comment and download counts).
+ *
+ * Clicks only add to an in-memory {@link CounterBuffer}; a scheduled flush (and one on shutdown) writes
+ * the coalesced deltas with one batched UPDATE per counter, so a viral post costs one row update per
+ * flush interval instead of one per click. Counters never drop below zero. Deltas from a failed flush
+ * are put back and retried on the next one.
+ */
+@Component
+public class EngagementCounterBuffer {
+
+    public enum Counter {
+        ACHIEVEMENT_LIKES("student_achievements", "likes"),
+        ACHIEVEMENT_SHARES("student_achievements", "shares"),
+        ACHIEVEMENT_COMMENTS("student_achievements", "comments"),
+        BOOK_DOWNLOADS("books", "download_count");
+
+        private final String updateSql;
+
+        Counter(String table, String column) {
+            this.updateSql = "UPDATE " + table + " SET " + column + " = GREATEST(COALESCE(" + column + ", 0) + ?, 0) WHERE id = ?";
+        }
+    }
+
+    /**
+     * Notified of every delta as it is buffered (after commit), e.g. to keep in-memory rankings current
+     */
+    public interface Listener {
+        void onIncrement(Counter counter, Long id, long delta);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private final Map<Counter, CounterBuffer> buffers = new EnumMap<>(Counter.class);
+    private final AtomicLong flushedRows = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private volatile LocalDateTime lastFlushAt;
+
+    public EngagementCounterBuffer() {
+        for (Counter counter : Counter.values()) {
+            buffers.put(counter, new CounterBuffer());
+        }
+    }
+
+    /**
+     * Buffer a delta for one row. Inside a transaction the delta is only buffered after commit,
+     * so rolled-back likes/comments never reach the counter.
+     */
+    public void increment(Counter counter, Long id, long delta) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(counter, id, delta);
+                }
+            });
+        } else {
+            apply(counter, id, delta);
+        }
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    private void apply(Counter counter, Long id, long delta) {
+        buffers.get(counter).add(id, delta);
+        for (Listener listener : listeners) {
+            listener.onIncrement(counter, id, delta);
+        }
+    }
+
+    /**
+     * Delta buffered for a row but not yet written (add to the stored value for an up-to-date read)
+     */
+    public long pending(Counter counter, Long id) {
+        return buffers.get(counter).pending(id);
+    }
+
+    @Scheduled(fixedDelayString = "${app.counter-buffer.flush-interval-ms:5000}")
+    public void flush() {
+        flushAll();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushAll();
+    }
+
+    private synchronized void flushAll() {
+        for (Map.Entry<Counter, CounterBuffer> entry : buffers.entrySet()) {
+            Map<Long, Long> deltas = entry.getValue().drain();
+            if (deltas.isEmpty()) {
+                continue;
+            }
+
+            // Update rows in id order so instances flushing overlapping ids lock them in the same order
+            List<Object[]> batch = new ArrayList<>(deltas.size());
+            new TreeMap<>(deltas).forEach((id, delta) -> batch.add(new Object[] { delta, id }));
+            try {
+                jdbcTemplate.batchUpdate(entry.getKey().updateSql, batch);
+                flushedRows.addAndGet(batch.size());
+            } catch (Exception e) {
+                entry.getValue().restore(deltas);
+                failedFlushes.incrementAndGet();
+                System.err.println("Error flushing " + entry.getKey() + " counters: " + e.getMessage());
+            }
+        }
+        lastFlushAt = LocalDateTime.now();
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> pending = new HashMap<>();
+        for (Map.Entry<Counter, CounterBuffer> entry : buffers.entrySet()) {
+            Map<String, Object> counterStats = new HashMap<>();
+            counterStats.put("pendingRows", entry.getValue().pendingKeys());
+            counterStats.put("pendingDelta", entry.getValue().pendingTotal());
+            pending.put(entry.getKey().name(), counterStats);
+        }
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("pending", pending);
+        stats.put("flushedRows", flushedRows.get());
+        stats.put("failedFlushes", failedFlushes.get());
+        stats.put("lastFlushAt", lastFlushAt);
+        return stats;
+    }
+}
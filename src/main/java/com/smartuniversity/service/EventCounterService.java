@@ -0,0 +1,35 @@
+package com.smartuniversity.service;
+
+import com.smartuniversity.model.EventRegistration.RegistrationStatus;
+import com.smartuniversity.repository.EventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repairs an event's denormalized counters (registered/waitlist/attended).
+ *
+ * The event row lock is taken before counting, so registrations, cancellations and check-ins
+ * (which update the same row in their transactions) either commit before the recount sees them
+ * or wait until it is written.
+ */
+@Service
+public class EventCounterService {
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    /**
+     * Recompute one event's counters from the registrations and attendance tables
+     *
+     * @return 1 if the event was repaired, 0 if it no longer exists
+     */
+    @Transactional
+    public int repairCounters(Long eventId) {
+        if (eventRepository.findByIdForUpdate(eventId).isEmpty()) {
+            return 0;
+        }
+        return eventRepository.recomputeRegistrationCounters(
+            eventId, RegistrationStatus.REGISTERED, RegistrationStatus.WAITLISTED);
+    }
+}
@@ -1,25 +1,26 @@
 package com.smartuniversity.service;
 
 import com.smartuniversity.model.User;
-import com.smartuniversity.repository.UserRepository;
+import com.smartuniversity.security.PrincipalCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
     
     @Autowired
-    UserRepository userRepository;
+    PrincipalCache principalCache;
 
+    // Not @Transactional: cache hits must not borrow a pooled connection
     @Override
-    @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User Not Found: " + username));
+        User user = principalCache.getUser(username);
+        if (user == null) {
+            throw new UsernameNotFoundException("User Not Found: " + username);
+        }
 
         return UserPrincipal.create(user);
     }
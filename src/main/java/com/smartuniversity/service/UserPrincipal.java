@@ -17,9 +17,11 @@ public class UserPrincipal implements UserDetails {
     private String password;
     private String role;
     private boolean enabled;
+    private int tokenVersion;
 
     public UserPrincipal(Long id, String firstName, String lastName, String email,
-                        String username, String password, String role, boolean enabled) {
+                        String username, String password, String role, boolean enabled,
+                        int tokenVersion) {
         this.id = id;
         this.firstName = firstName;
         this.lastName = lastName;
@@ -28,6 +30,7 @@ public class UserPrincipal implements UserDetails {
         this.password = password;
         this.role = role;
         this.enabled = enabled;
+        this.tokenVersion = tokenVersion;
     }
 
     public static UserPrincipal create(User user) {
@@ -39,7 +42,8 @@ public class UserPrincipal implements UserDetails {
                 user.getUsername(),
                 user.getPassword(),
                 user.getRole().name(),
-                user.isEnabled()
+                user.isEnabled(),
+                user.getTokenVersion()
         );
     }
 
@@ -63,6 +67,10 @@ public class UserPrincipal implements UserDetails {
         return role;
     }
 
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role));
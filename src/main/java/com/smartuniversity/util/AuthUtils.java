@@ -1,15 +1,17 @@
 package com.smartuniversity.util;
 
 import com.smartuniversity.model.User;
-import com.smartuniversity.repository.UserRepository;
+import com.smartuniversity.security.CurrentUserContext;
 import com.smartuniversity.security.JwtUtils;
+import com.smartuniversity.security.PrincipalCache;
+import com.smartuniversity.service.UserPrincipal;
+import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
-
-import java.util.Optional;
+import org.springframework.web.context.request.RequestContextHolder;
 
 @Component
 public class AuthUtils {
@@ -18,7 +20,10 @@ public class AuthUtils {
     private JwtUtils jwtUtils;
 
     @Autowired
-    private UserRepository userRepository;
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private CurrentUserContext currentUserContext;
 
     /**
      * Extract user from JWT token in Authorization header.
@@ -30,18 +35,20 @@ public class AuthUtils {
     public User getUserFromAuthHeader(String authHeader) {
         User user = null;
 
+        // Reuse the caller already resolved by the JWT filter for this request
+        CurrentUserContext context = resolvedContextFor(authHeader);
+        if (context != null) {
+            return principalCache.getUser(context.getUsername());
+        }
+
         // Try to get user from JWT token
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             try {
                 String jwt = authHeader.substring(7); // Remove "Bearer " prefix
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-
-                if (username != null) {
-                    user = userRepository.findByUsername(username).orElse(null);
-                    if (user != null) {
-                        System.out.println("Found user from JWT: " + username + " (ID: " + user.getId() + ")");
-                        return user;
-                    }
+                user = getUserFromJwt(jwt, false);
+                if (user != null) {
+                    System.out.println("Found user from JWT: " + user.getUsername() + " (ID: " + user.getId() + ")");
+                    return user;
                 }
             } catch (Exception e) {
                 System.err.println("Error extracting user from JWT: " + e.getMessage());
@@ -65,16 +72,13 @@ public class AuthUtils {
             return null;
         }
 
-        try {
-            String jwt = authHeader.substring(7);
-            String username = jwtUtils.getUserNameFromJwtToken(jwt);
+        CurrentUserContext context = resolvedContextFor(authHeader);
+        if (context != null) {
+            return context.isAdmin() ? principalCache.getUser(context.getUsername()) : null;
+        }
 
-            if (username != null) {
-                User user = userRepository.findByUsername(username).orElse(null);
-                if (user != null && user.getRole() == User.UserRole.ADMIN) {
-                    return user;
-                }
-            }
+        try {
+            return getUserFromJwt(authHeader.substring(7), true);
         } catch (Exception e) {
             System.err.println("Error extracting admin from JWT: " + e.getMessage());
         }
@@ -89,6 +93,10 @@ public class AuthUtils {
      * @return true if user is admin, false otherwise
      */
     public boolean isAdmin(String authHeader) {
+        CurrentUserContext context = resolvedContextFor(authHeader);
+        if (context != null) {
+            return context.isAdmin();
+        }
         return getAdminFromAuthHeader(authHeader) != null;
     }
 
@@ -99,18 +107,26 @@ public class AuthUtils {
      * @return User ID of currently authenticated user, or null
      */
     public Long getCurrentUserId() {
+        CurrentUserContext context = currentContext();
+        if (context != null && context.isResolved()) {
+            return context.getUserId();
+        }
+
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
             if (authentication != null && authentication.isAuthenticated() &&
                 !(authentication.getPrincipal() instanceof String)) {
 
-                UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-                String username = userDetails.getUsername();
+                // The JWT filter stores a UserPrincipal, which already carries the id
+                if (authentication.getPrincipal() instanceof UserPrincipal principal) {
+                    return principal.getId();
+                }
 
-                Optional<User> userOpt = userRepository.findByUsername(username);
-                if (userOpt.isPresent()) {
-                    return userOpt.get().getId();
+                UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+                User user = principalCache.getUser(userDetails.getUsername());
+                if (user != null) {
+                    return user.getId();
                 }
             }
         } catch (Exception e) {
@@ -120,4 +136,52 @@ public class AuthUtils {
         // No authenticated user found — return null
         return null;
     }
+
+    /**
+     * Get the request's resolved caller if it was resolved from this Authorization header
+     */
+    private CurrentUserContext resolvedContextFor(String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return null;
+        }
+        CurrentUserContext context = currentContext();
+        if (context != null && context.isResolvedFor(authHeader.substring(7))) {
+            return context;
+        }
+        return null;
+    }
+
+    /**
+     * Get the request-scoped context, or null when called outside an HTTP request
+     */
+    private CurrentUserContext currentContext() {
+        return RequestContextHolder.getRequestAttributes() != null ? currentUserContext : null;
+    }
+
+    /**
+     * Verify a token the JWT filter did not resolve (e.g. outside a request) and load its user.
+     * Applies the filter's checks, so a token revoked by a role/enabled change is rejected here too.
+     */
+    private User getUserFromJwt(String jwt, boolean adminOnly) {
+        CurrentUserContext context = currentContext();
+        if (context != null) {
+            context.recordSignatureVerification();
+        }
+        Claims claims = jwtUtils.parseAndValidate(jwt);
+        if (claims == null) {
+            return null;
+        }
+
+        User user = principalCache.getUser(claims.getSubject());
+        if (user == null || !jwtUtils.isCurrentToken(claims, user.getId(), user.getTokenVersion())) {
+            return null;
+        }
+        if (adminOnly) {
+            User.UserRole role = jwtUtils.getRoleFromClaims(claims);
+            if ((role != null ? role : user.getRole()) != User.UserRole.ADMIN) {
+                return null;
+            }
+        }
+        return user;
+    }
 }
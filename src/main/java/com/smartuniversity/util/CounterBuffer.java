@@ -0,0 +1,71 @@
+package com.smartuniversity.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalesces counter increments per row id in memory until they are drained and written in one batch.
+ *
+ * Only ids with a non-zero pending delta are kept: a drain removes every entry it takes, and an
+ * increment that cancels out the pending delta removes its entry, so the map is bounded by the rows
+ * touched since the last drain. Each update is an atomic per-key merge, so an increment racing a
+ * drain lands either in that drain or in a fresh entry for the next one, never in neither.
+ */
+public class CounterBuffer {
+
+    private final Map<Long, Long> pending = new ConcurrentHashMap<>();
+
+    public void add(Long id, long delta) {
+        if (id != null && delta != 0) {
+            pending.merge(id, delta, (current, added) -> current + added != 0 ? current + added : null);
+        }
+    }
+
+    /**
+     * Take all buffered deltas (id -> delta) and remove them from the buffer
+     */
+    public Map<Long, Long> drain() {
+        Map<Long, Long> deltas = new HashMap<>();
+        for (Long id : pending.keySet()) {
+            Long delta = pending.remove(id);
+            if (delta != null) {
+                deltas.put(id, delta);
+            }
+        }
+        return deltas;
+    }
+
+    /**
+     * Put drained deltas back (e.g. after a failed write) so the next drain retries them
+     */
+    public void restore(Map<Long, Long> deltas) {
+        deltas.forEach(this::add);
+    }
+
+    /**
+     * Not-yet-written delta for one id
+     */
+    public long pending(Long id) {
+        Long delta = id != null ? pending.get(id) : null;
+        return delta != null ? delta : 0;
+    }
+
+    /**
+     * Number of ids with a non-zero pending delta
+     */
+    public int pendingKeys() {
+        return pending.size();
+    }
+
+    /**
+     * Sum of the absolute pending deltas across all ids
+     */
+    public long pendingTotal() {
+        long total = 0;
+        for (long delta : pending.values()) {
+            total += Math.abs(delta);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,47 @@
+package com.smartuniversity.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in a listing ordered by (timestamp, id), e.g. events by eventDate or
+ * achievements and comments by createdAt.
+ *
+ * Cursor-paginated endpoints return a page with hasNext and nextCursor, an opaque URL-safe
+ * token; clients pass it back as ?cursor= to fetch the next page, and it is null on the last
+ * page. Pages stay stable while rows are inserted or hidden between requests.
+ */
+public record KeysetCursor(LocalDateTime timestamp, Long id) {
+
+    // Lower bound for the first page of an ascending listing
+    public static final KeysetCursor EARLIEST = new KeysetCursor(LocalDateTime.of(1970, 1, 1, 0, 0), 0L);
+
+    // Upper bound for the first page of a descending (newest-first) listing
+    public static final KeysetCursor LATEST = new KeysetCursor(LocalDateTime.of(9999, 12, 31, 0, 0), Long.MAX_VALUE);
+
+    public String encode() {
+        String raw = timestamp + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}
+     *
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new KeysetCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.valueOf(raw.substring(separator + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.smartuniversity.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Small bounded, TTL-based in-memory cache shared by the app's read-through caches
+ * (PrincipalCache, CompetitionFormCache, CommentAuthorCache).
+ *
+ * Entries expire ttlSeconds after they are put. When the cache is full, expired entries are
+ * swept first and then the live entry closest to expiry is dropped. Loading on a miss and
+ * evicting on writes are left to the owning cache.
+ */
+public class TtlCache<K, V> {
+
+    private final long ttlMillis;
+    private final int maxSize;
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private record Entry<V>(V value, long expiresAt) {
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+
+    public TtlCache(long ttlSeconds, int maxSize) {
+        this.ttlMillis = ttlSeconds * 1000L;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Cached value for a key, or null if it is absent or expired
+     */
+    public V get(K key) {
+        Entry<V> entry = key != null ? entries.get(key) : null;
+        if (entry != null && !entry.isExpired(System.currentTimeMillis())) {
+            hits.incrementAndGet();
+            return entry.value();
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    public void put(K key, V value) {
+        if (key == null || value == null || maxSize <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (entries.size() >= maxSize && !entries.containsKey(key)) {
+            entries.values().removeIf(entry -> entry.isExpired(now));
+        }
+        if (entries.size() >= maxSize && !entries.containsKey(key)) {
+            // Still full of live entries: drop the one closest to expiry
+            entries.entrySet().stream()
+                    .min((a, b) -> Long.compare(a.getValue().expiresAt(), b.getValue().expiresAt()))
+                    .ifPresent(oldest -> entries.remove(oldest.getKey(), oldest.getValue()));
+        }
+        entries.put(key, new Entry<>(value, now + ttlMillis));
+    }
+
+    public void remove(K key) {
+        if (key != null) {
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Drop every entry whose value matches (e.g. by a secondary id)
+     */
+    public void removeIf(Predicate<V> matcher) {
+        entries.values().removeIf(entry -> matcher.test(entry.value()));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+}